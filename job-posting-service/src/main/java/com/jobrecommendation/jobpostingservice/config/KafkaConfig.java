@@ -1,15 +1,17 @@
 package com.jobrecommendation.jobpostingservice.config;
 
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
-import com.jobrecommendation.jobpostingservice.model.JobPosting;
+import com.jobrecommendation.jobpostingservice.model.JobPostingEvent;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -20,17 +22,53 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${app.kafka.job-postings.partitions:3}")
+    private int jobPostingPartitions;
+
+    @Value("${app.kafka.producer.linger-ms:10}")
+    private int lingerMs;
+
+    @Value("${app.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${app.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    /**
+     * Job events are keyed by job id, so partitions spread the jobs across
+     * consumers while each job's events stay in order on one partition.
+     */
+    @Bean
+    public NewTopic jobPostingsTopic() {
+        return TopicBuilder.name(JobPostingEvent.TOPIC)
+                .partitions(jobPostingPartitions)
+                .build();
+    }
+
+    /**
+     * Waits up to {@code linger-ms} to fill batches of up to {@code batch-size}
+     * bytes per partition, compressed as a whole, so bursts of events go out
+     * in few requests. Idempotence keeps a partition's events in order and
+     * free of duplicates when sends are retried.
+     */
     @Bean
-    public ProducerFactory<String, JobPosting> producerFactory() {
+    public ProducerFactory<String, JobPostingEvent> producerFactory() {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        // Consumers read the envelope type they expect, so type headers would only add bytes per record
+        config.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
         return new DefaultKafkaProducerFactory<>(config);
     }
 
     @Bean
-    public KafkaTemplate<String, JobPosting> kafkaTemplate() {
+    public KafkaTemplate<String, JobPostingEvent> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 }
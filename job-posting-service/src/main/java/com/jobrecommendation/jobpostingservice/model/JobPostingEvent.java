@@ -0,0 +1,23 @@
+package com.jobrecommendation.jobpostingservice.model;
+
+import java.time.Instant;
+
+/**
+ * Envelope of the events published to the {@code job-postings} topic, keyed
+ * by {@code jobId} so all events of a job land on one partition in order.
+ * {@code jobPosting} is the full document after the change; {@code version}
+ * is the envelope's schema version, raised on incompatible changes.
+ */
+public record JobPostingEvent(Type type, int version, String jobId, Instant occurredAt, JobPosting jobPosting) {
+
+    public static final String TOPIC = "job-postings";
+    public static final int VERSION = 1;
+
+    public enum Type {
+        CREATED, UPDATED, DEACTIVATED
+    }
+
+    public static JobPostingEvent of(Type type, JobPosting jobPosting) {
+        return new JobPostingEvent(type, VERSION, jobPosting.getId(), Instant.now(), jobPosting);
+    }
+}
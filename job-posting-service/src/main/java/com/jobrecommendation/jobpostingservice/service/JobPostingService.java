@@ -2,6 +2,7 @@ package com.jobrecommendation.jobpostingservice.service;
 
 import com.jobrecommendation.jobpostingservice.dto.JobPostingDTO;
 import com.jobrecommendation.jobpostingservice.model.JobPosting;
+import com.jobrecommendation.jobpostingservice.model.JobPostingEvent;
 import com.jobrecommendation.jobpostingservice.repository.JobPostingRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -17,8 +18,7 @@ import java.util.Optional;
 public class JobPostingService {
 
     private final JobPostingRepository jobPostingRepository;
-    private final KafkaTemplate<String, JobPosting> kafkaTemplate;
-    private static final String JOB_POSTING_TOPIC = "job-postings";
+    private final KafkaTemplate<String, JobPostingEvent> kafkaTemplate;
 
     @Transactional
     public JobPosting createJobPosting(JobPostingDTO jobPostingDTO) {
@@ -29,7 +29,7 @@ public class JobPostingService {
 
         JobPosting savedJob = jobPostingRepository.save(jobPosting);
         // Publish event to Kafka for recommendation service
-        kafkaTemplate.send(JOB_POSTING_TOPIC, savedJob);
+        publish(JobPostingEvent.Type.CREATED, savedJob);
         return savedJob;
     }
 
@@ -61,7 +61,7 @@ public class JobPostingService {
         mapDTOToEntity(jobPostingDTO, existingJob);
         JobPosting updatedJob = jobPostingRepository.save(existingJob);
         // Publish update event to Kafka
-        kafkaTemplate.send(JOB_POSTING_TOPIC, updatedJob);
+        publish(JobPostingEvent.Type.UPDATED, updatedJob);
         return updatedJob;
     }
 
@@ -72,7 +72,12 @@ public class JobPostingService {
         jobPosting.setIsActive(false);
         JobPosting deactivatedJob = jobPostingRepository.save(jobPosting);
         // Publish deactivation event to Kafka
-        kafkaTemplate.send(JOB_POSTING_TOPIC, deactivatedJob);
+        publish(JobPostingEvent.Type.DEACTIVATED, deactivatedJob);
+    }
+
+    private void publish(JobPostingEvent.Type type, JobPosting jobPosting) {
+        // Keyed by job id, so every event of a job goes to the same partition and is consumed in order
+        kafkaTemplate.send(JobPostingEvent.TOPIC, jobPosting.getId(), JobPostingEvent.of(type, jobPosting));
     }
 
     private void mapDTOToEntity(JobPostingDTO dto, JobPosting entity) {
@@ -0,0 +1,47 @@
+package com.jobrecommendation.jobpostingservice.model;
+
+import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Pins the wire format of the {@code job-postings} envelope. The fixture is
+ * shared with recommendation-service's {@code JobPostingEventDeserializerTest},
+ * so a change here must be mirrored there.
+ */
+class JobPostingEventTest {
+
+    @Test
+    void serialize_MatchesContractFixture() throws Exception {
+        JobPosting jobPosting = new JobPosting();
+        jobPosting.setId("job-1");
+        jobPosting.setTitle("Java Developer");
+        jobPosting.setCompany("TechCorp");
+        jobPosting.setRequiredSkills(Arrays.asList("Java", "Spring"));
+        jobPosting.setSalary(120000.0);
+        jobPosting.setPostedDate(LocalDateTime.of(2024, 4, 1, 9, 0));
+        jobPosting.setIsActive(false);
+        JobPostingEvent event = new JobPostingEvent(JobPostingEvent.Type.DEACTIVATED, JobPostingEvent.VERSION,
+                "job-1", Instant.parse("2024-05-01T10:15:30.123Z"), jobPosting);
+
+        try (JsonSerializer<JobPostingEvent> serializer = new JsonSerializer<>()) {
+            String json = new String(serializer.serialize("job-postings", event), StandardCharsets.UTF_8);
+
+            JSONAssert.assertEquals(fixture(), json, JSONCompareMode.STRICT);
+        }
+    }
+
+    private static String fixture() throws IOException {
+        try (InputStream in = JobPostingEventTest.class.getResourceAsStream("/job-posting-event-v1.json")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
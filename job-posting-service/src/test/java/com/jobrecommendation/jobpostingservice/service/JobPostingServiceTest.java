@@ -2,6 +2,7 @@ package com.jobrecommendation.jobpostingservice.service;
 
 import com.jobrecommendation.jobpostingservice.dto.JobPostingDTO;
 import com.jobrecommendation.jobpostingservice.model.JobPosting;
+import com.jobrecommendation.jobpostingservice.model.JobPostingEvent;
 import com.jobrecommendation.jobpostingservice.repository.JobPostingRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,7 +28,7 @@ public class JobPostingServiceTest {
     private JobPostingRepository jobPostingRepository;
 
     @Mock
-    private KafkaTemplate<String, JobPosting> kafkaTemplate;
+    private KafkaTemplate<String, JobPostingEvent> kafkaTemplate;
 
     @InjectMocks
     private JobPostingService jobPostingService;
@@ -59,7 +60,7 @@ public class JobPostingServiceTest {
     @Test
     void createJobPosting_Success() {
         when(jobPostingRepository.save(any(JobPosting.class))).thenReturn(jobPosting);
-        when(kafkaTemplate.send(anyString(), any(JobPosting.class))).thenReturn(null);
+        when(kafkaTemplate.send(anyString(), anyString(), any(JobPostingEvent.class))).thenReturn(null);
 
         JobPosting result = jobPostingService.createJobPosting(jobPostingDTO);
 
@@ -67,7 +68,24 @@ public class JobPostingServiceTest {
         assertEquals(jobPostingDTO.getTitle(), result.getTitle());
         assertEquals(jobPostingDTO.getCompany(), result.getCompany());
         assertTrue(result.getIsActive());
-        verify(kafkaTemplate).send(eq("job-postings"), any(JobPosting.class));
+        verify(kafkaTemplate).send(eq("job-postings"), eq("1"),
+                argThat(event -> event.type() == JobPostingEvent.Type.CREATED && event.jobPosting() == jobPosting));
+    }
+
+    @Test
+    void updateJobPosting_Success() {
+        jobPostingDTO.setTitle("Senior Software Engineer");
+        when(jobPostingRepository.findById("1")).thenReturn(Optional.of(jobPosting));
+        when(jobPostingRepository.save(any(JobPosting.class))).thenReturn(jobPosting);
+        when(kafkaTemplate.send(anyString(), anyString(), any(JobPostingEvent.class))).thenReturn(null);
+
+        JobPosting result = jobPostingService.updateJobPosting("1", jobPostingDTO);
+
+        assertEquals("Senior Software Engineer", result.getTitle());
+        verify(jobPostingRepository).save(jobPosting);
+        verify(kafkaTemplate).send(eq("job-postings"), eq("1"),
+                argThat(event -> event.type() == JobPostingEvent.Type.UPDATED
+                        && "Senior Software Engineer".equals(event.jobPosting().getTitle())));
     }
 
     @Test
@@ -111,12 +129,13 @@ public class JobPostingServiceTest {
     void deactivateJobPosting_Success() {
         when(jobPostingRepository.findById("1")).thenReturn(Optional.of(jobPosting));
         when(jobPostingRepository.save(any(JobPosting.class))).thenReturn(jobPosting);
-        when(kafkaTemplate.send(anyString(), any(JobPosting.class))).thenReturn(null);
+        when(kafkaTemplate.send(anyString(), anyString(), any(JobPostingEvent.class))).thenReturn(null);
 
         jobPostingService.deactivateJobPosting("1");
 
         verify(jobPostingRepository).findById("1");
         verify(jobPostingRepository).save(any(JobPosting.class));
-        verify(kafkaTemplate).send(eq("job-postings"), any(JobPosting.class));
+        verify(kafkaTemplate).send(eq("job-postings"), eq("1"),
+                argThat(event -> event.type() == JobPostingEvent.Type.DEACTIVATED && "1".equals(event.jobId())));
     }
 }
@@ -0,0 +1,124 @@
+package com.jobrecommendation.recommendationbenchmarks;
+
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.JobBlock;
+import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.model.UserProfile;
+import com.jobrecommendation.recommendationservice.repository.JobCatalog;
+import com.jobrecommendation.recommendationservice.repository.JobColumns;
+import com.jobrecommendation.recommendationservice.service.BatchScorer;
+import com.jobrecommendation.recommendationservice.service.FeatureEncoder;
+import com.jobrecommendation.recommendationservice.service.RecommendationEngine;
+import com.jobrecommendation.recommendationservice.service.SkillDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring one user against a block of {@value #BLOCK_SIZE} jobs: the batch
+ * kernel alone (skill matches precomputed), the batch path including the skill
+ * matches, and the engine's compiled and string-based pairwise scoring. The
+ * fork enables the vector module; {@code batchScorer=scalar} measures the
+ * fallback in the same JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+public class BatchScoringBenchmark {
+
+    private static final int BLOCK_SIZE = 1024;
+    private static final int USERS = 64;
+
+    @Param({"5", "20"})
+    private int skillsPerProfile;
+
+    /** scalar or vector. */
+    @Param({"scalar", "vector"})
+    private String batchScorer;
+
+    private RecommendationEngine recommendationEngine;
+    private JobColumns jobs;
+    private List<JobPosting> jobPostings;
+    private List<UserProfile> users;
+    private CompiledUserProfile[] compiledUsers;
+    private JobBlock block;
+    private double[] scores;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("vector".equals(batchScorer) && !BatchScorer.isVectorAvailable()) {
+            throw new IllegalStateException("Run the fork with --add-modules jdk.incubator.vector");
+        }
+        jobPostings = BenchmarkData.jobs(BLOCK_SIZE, skillsPerProfile, 1L);
+        users = BenchmarkData.users(USERS, skillsPerProfile, 2L);
+
+        FeatureEncoder featureEncoder = new FeatureEncoder(new SkillDictionary());
+        JobCatalog jobCatalog = new JobCatalog(featureEncoder);
+        jobCatalog.loadAll(jobPostings);
+        jobs = jobCatalog.snapshot();
+        compiledUsers = users.stream().map(featureEncoder::compile).toArray(CompiledUserProfile[]::new);
+        recommendationEngine = new RecommendationEngine(
+                "vector".equals(batchScorer) ? BatchScorer.best() : BatchScorer.scalar());
+
+        block = new JobBlock(BLOCK_SIZE);
+        jobs.copyFeatures(0, BLOCK_SIZE, block);
+        scores = new double[BLOCK_SIZE];
+    }
+
+    @Benchmark
+    public double[] batchKernel() {
+        // Skill matches of some user; the kernel's cost does not depend on them
+        recommendationEngine.calculateMatchScores(compiledUsers[nextIndex()], block, scores);
+        return scores;
+    }
+
+    @Benchmark
+    public double[] batchWithSkillMatches() {
+        CompiledUserProfile user = compiledUsers[nextIndex()];
+        jobs.copyFeatures(0, BLOCK_SIZE, block);
+        for (int row = 0; row < BLOCK_SIZE; row++) {
+            block.getSkillMatches()[row] = recommendationEngine.calculateSkillMatch(user, jobs, row);
+        }
+        recommendationEngine.calculateMatchScores(user, block, scores);
+        return scores;
+    }
+
+    @Benchmark
+    public void pairwiseCompiled(Blackhole blackhole) {
+        CompiledUserProfile user = compiledUsers[nextIndex()];
+        for (int row = 0; row < BLOCK_SIZE; row++) {
+            blackhole.consume(recommendationEngine.calculateMatchScore(user, jobs, row));
+        }
+    }
+
+    @Benchmark
+    public void pairwiseJobMatch(Blackhole blackhole) {
+        UserProfile user = users.get(nextIndex());
+        for (JobPosting job : jobPostings) {
+            blackhole.consume(recommendationEngine.calculateJobMatch(user, job));
+        }
+    }
+
+    private int nextIndex() {
+        int i = cursor;
+        cursor = i + 1 == USERS ? 0 : i + 1;
+        return i;
+    }
+}
@@ -0,0 +1,74 @@
+package com.jobrecommendation.recommendationbenchmarks;
+
+import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.model.UserProfile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic catalogs and profiles for the benchmarks.
+ */
+final class BenchmarkData {
+
+    private static final int SKILL_VOCABULARY = 2_000;
+    private static final int LOCATIONS = 50;
+    private static final int COMPANIES = 1_000;
+    private static final String[] EXPERIENCE_LEVELS = {"ENTRY", "MID", "SENIOR"};
+
+    private BenchmarkData() {
+    }
+
+    static List<JobPosting> jobs(int count, int skillsPerJob, long seed) {
+        Random random = new Random(seed);
+        List<JobPosting> jobs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            JobPosting job = new JobPosting();
+            job.setId("job-" + i);
+            job.setTitle("Job " + i);
+            job.setCompany(company(random));
+            job.setRequiredSkills(skills(random, skillsPerJob));
+            job.setLocation(location(random));
+            job.setExperienceLevel(EXPERIENCE_LEVELS[random.nextInt(EXPERIENCE_LEVELS.length)]);
+            job.setSalary(40_000.0 + random.nextInt(160) * 1_000.0);
+            job.setIsActive(true);
+            jobs.add(job);
+        }
+        return jobs;
+    }
+
+    static List<UserProfile> users(int count, int skillsPerProfile, long seed) {
+        Random random = new Random(seed);
+        List<UserProfile> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UserProfile user = new UserProfile();
+            user.setId("user-" + i);
+            user.setSkills(skills(random, skillsPerProfile));
+            user.setPreferredLocation(location(random));
+            user.setExperienceLevel(EXPERIENCE_LEVELS[random.nextInt(EXPERIENCE_LEVELS.length)]);
+            user.setExpectedSalary(40_000.0 + random.nextInt(160) * 1_000.0);
+            user.setPreferredCompanies(List.of(company(random), company(random)));
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static List<String> skills(Random random, int count) {
+        List<String> skills = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Skew towards the head of the vocabulary so that overlaps are realistic
+            int skill = (int) (SKILL_VOCABULARY * Math.pow(random.nextDouble(), 3));
+            skills.add("Skill-" + skill);
+        }
+        return skills;
+    }
+
+    private static String location(Random random) {
+        return "City-" + random.nextInt(LOCATIONS);
+    }
+
+    private static String company(Random random) {
+        return "Company-" + random.nextInt(COMPANIES);
+    }
+}
@@ -0,0 +1,124 @@
+package com.jobrecommendation.recommendationbenchmarks;
+
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.JobFilter;
+import com.jobrecommendation.recommendationservice.model.UserRecommendations;
+import com.jobrecommendation.recommendationservice.repository.JobCatalog;
+import com.jobrecommendation.recommendationservice.repository.JobColumns;
+import com.jobrecommendation.recommendationservice.repository.UserProfileStore;
+import com.jobrecommendation.recommendationservice.repository.UserRecommendationStore;
+import com.jobrecommendation.recommendationservice.service.BulkRanker;
+import com.jobrecommendation.recommendationservice.service.FeatureEncoder;
+import com.jobrecommendation.recommendationservice.service.JobRanker;
+import com.jobrecommendation.recommendationservice.service.RecommendationEngine;
+import com.jobrecommendation.recommendationservice.service.SkillDictionary;
+import com.jobrecommendation.recommendationservice.service.WorkScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to re-rank the catalog for every user: the tiled matrix path of
+ * {@link BulkRanker} and the blocked multi-user scan of batch requests against
+ * one exhaustive scan per user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class BulkRankingBenchmark {
+
+    private static final int STORED_SIZE = 50;
+
+    @Param({"1000"})
+    private int userCount;
+
+    @Param({"10000", "100000"})
+    private int catalogSize;
+
+    @Param({"5", "20"})
+    private int skillsPerProfile;
+
+    @Param({"32"})
+    private int userTile;
+
+    @Param({"4096"})
+    private int jobTile;
+
+    @Param({"64"})
+    private int batchUserGroup;
+
+    private JobRanker jobRanker;
+    private WorkScheduler workScheduler;
+    private BulkRanker bulkRanker;
+    private JobCatalog jobCatalog;
+    private List<CompiledUserProfile> users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        FeatureEncoder featureEncoder = new FeatureEncoder(new SkillDictionary());
+        jobCatalog = new JobCatalog(featureEncoder);
+        jobCatalog.loadAll(BenchmarkData.jobs(catalogSize, skillsPerProfile, 1L));
+        UserProfileStore userProfileStore = new UserProfileStore(featureEncoder);
+        userProfileStore.loadAll(BenchmarkData.users(userCount, skillsPerProfile, 2L));
+        users = userProfileStore.findAllCompiled();
+
+        RecommendationEngine recommendationEngine = new RecommendationEngine();
+        UserRecommendationStore userRecommendationStore = new UserRecommendationStore(STORED_SIZE, userCount,
+                Duration.ofHours(1), Duration.ofHours(1), new SimpleMeterRegistry());
+        jobRanker = new JobRanker(recommendationEngine, jobCatalog, featureEncoder, false);
+        workScheduler = new WorkScheduler(1, Map.of(), new SimpleMeterRegistry());
+        bulkRanker = new BulkRanker(recommendationEngine, jobCatalog, userProfileStore, userRecommendationStore,
+                workScheduler, userTile, jobTile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        workScheduler.shutdown();
+    }
+
+    @Benchmark
+    public int bulkRanking() {
+        return bulkRanker.recomputeAll();
+    }
+
+    @Benchmark
+    public int perUserRanking() {
+        int ranked = 0;
+        for (CompiledUserProfile user : users) {
+            ranked += jobRanker.rankAll(user, STORED_SIZE, JobFilter.NONE).size();
+        }
+        return ranked;
+    }
+
+    @Benchmark
+    public int blockedRanking() {
+        JobColumns jobs = jobCatalog.snapshot();
+        int ranked = 0;
+        for (int from = 0; from < users.size(); from += batchUserGroup) {
+            List<CompiledUserProfile> group = users.subList(from, Math.min(users.size(), from + batchUserGroup));
+            for (UserRecommendations ranking : jobRanker.rankAll(group, STORED_SIZE, jobs)) {
+                ranked += ranking.size();
+            }
+        }
+        return ranked;
+    }
+}
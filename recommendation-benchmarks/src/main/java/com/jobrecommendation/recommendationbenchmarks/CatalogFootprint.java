@@ -0,0 +1,52 @@
+package com.jobrecommendation.recommendationbenchmarks;
+
+import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.repository.JobCatalog;
+import com.jobrecommendation.recommendationservice.repository.JobColumns;
+import com.jobrecommendation.recommendationservice.service.FeatureEncoder;
+import com.jobrecommendation.recommendationservice.service.SkillDictionary;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Retained heap per job of the {@link JobCatalog}, measured by walking the
+ * object graph. "with postings" adds back the map of original postings the
+ * catalog used to keep next to its compiled form; "columns" is the columnar
+ * snapshot alone, which is all a full scan touches. With the {@code mapped}
+ * feature store only the heap part of the columns is counted.
+ *
+ * <pre>
+ * mvn -pl recommendation-benchmarks exec:exec -Dbenchmark.main=com.jobrecommendation.recommendationbenchmarks.CatalogFootprint -Djmh.args="100000 20 mapped"
+ * </pre>
+ */
+public final class CatalogFootprint {
+
+    private CatalogFootprint() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int catalogSize = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int skillsPerJob = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        boolean mapped = args.length > 2 && "mapped".equals(args[2]);
+
+        List<JobPosting> jobs = BenchmarkData.jobs(catalogSize, skillsPerJob, 1L);
+        JobCatalog jobCatalog = new JobCatalog(new FeatureEncoder(new SkillDictionary()),
+                mapped ? JobColumns.mapped(Files.createTempDirectory("job-features")) : JobColumns.empty());
+        jobCatalog.loadAll(jobs);
+        Map<String, JobPosting> postings = new ConcurrentHashMap<>();
+        jobs.forEach(job -> postings.put(job.getId(), job));
+
+        report("catalog with postings", GraphLayout.parseInstance(jobCatalog, postings).totalSize(), catalogSize);
+        report("catalog", GraphLayout.parseInstance(jobCatalog).totalSize(), catalogSize);
+        report("columns", GraphLayout.parseInstance(jobCatalog.snapshot()).totalSize(), catalogSize);
+    }
+
+    private static void report(String name, long bytes, int catalogSize) {
+        System.out.printf("%-22s %,14d bytes %,8d bytes/job%n", name, bytes, bytes / catalogSize);
+    }
+}
@@ -0,0 +1,193 @@
+package com.jobrecommendation.recommendationbenchmarks;
+
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.JobFilter;
+import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.model.JobPostingEvent;
+import com.jobrecommendation.recommendationservice.repository.JobCatalog;
+import com.jobrecommendation.recommendationservice.repository.UserProfileStore;
+import com.jobrecommendation.recommendationservice.repository.UserRecommendationStore;
+import com.jobrecommendation.recommendationservice.service.FeatureEncoder;
+import com.jobrecommendation.recommendationservice.service.JobPostingListener;
+import com.jobrecommendation.recommendationservice.service.JobRanker;
+import com.jobrecommendation.recommendationservice.service.RecommendationEngine;
+import com.jobrecommendation.recommendationservice.service.ReplayTracker;
+import com.jobrecommendation.recommendationservice.service.SkillDictionary;
+import com.jobrecommendation.recommendationservice.service.WorkScheduler;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Job events fed to {@link JobPostingListener} by a local stand-in for the
+ * Kafka consumer thread, in polls of {@code batchSize} events, with stored
+ * rankings for every user to patch. With {@code userCount=0} there is nothing
+ * to patch, as when replaying the topic on startup.
+ * {@code consumeJobEvent} is the sustained rate, which once the ring is full is
+ * the rate of the scoring workers; {@code consumeBurst} is how long the
+ * consumer thread is held up by a burst that fits in the ring, with the
+ * backlog scored between invocations. The publish-to-patched latency
+ * percentiles of the ring are printed at the end of the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+public class JobEventPipelineBenchmark {
+
+    private static final int STORED_SIZE = 50;
+    private static final int SKILLS = 5;
+    private static final int BURST = 1000;
+
+    @Param({"10000"})
+    private int catalogSize;
+
+    @Param({"1000"})
+    private int userCount;
+
+    /** 0 patches on the consumer thread, as before the ring. */
+    @Param({"0", "2"})
+    private int scoringWorkers;
+
+    @Param({"8192"})
+    private int ringSize;
+
+    @Param({"1", "500"})
+    private int batchSize;
+
+    /** Jobs the events update; fewer than the catalog means repeated updates within a poll. */
+    @Param({"10000"})
+    private int updatedJobs;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WorkScheduler workScheduler;
+    private JobPostingListener listener;
+    private List<JobPostingEvent> events;
+    private List<ConsumerRecord<String, JobPostingEvent>> poll = new ArrayList<>();
+    private long offset;
+
+    @Setup
+    public void setUp() {
+        // Two INFO lines per event would otherwise dominate the measurement
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(JobPostingListener.class))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        FeatureEncoder featureEncoder = new FeatureEncoder(new SkillDictionary());
+        JobCatalog jobCatalog = new JobCatalog(featureEncoder);
+        jobCatalog.loadAll(BenchmarkData.jobs(catalogSize, SKILLS, 1L));
+        UserProfileStore userProfileStore = new UserProfileStore(featureEncoder);
+        userProfileStore.loadAll(BenchmarkData.users(userCount, SKILLS, 2L));
+
+        meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentiles(0.5, 0.99).build().merge(config);
+            }
+        });
+        RecommendationEngine recommendationEngine = new RecommendationEngine();
+        UserRecommendationStore userRecommendationStore = new UserRecommendationStore(STORED_SIZE, userCount,
+                Duration.ofHours(1), Duration.ofHours(1), meterRegistry);
+        JobRanker jobRanker = new JobRanker(recommendationEngine, jobCatalog, featureEncoder, true);
+        for (CompiledUserProfile user : userProfileStore.findAllCompiled()) {
+            userRecommendationStore.save(jobRanker.rank(user, STORED_SIZE, JobFilter.NONE));
+        }
+
+        workScheduler = new WorkScheduler(Runtime.getRuntime().availableProcessors(), Map.of(), meterRegistry);
+        listener = new JobPostingListener(recommendationEngine, jobCatalog, userRecommendationStore,
+                new ReplayTracker(), workScheduler, new KafkaListenerEndpointRegistry(), ringSize, scoringWorkers,
+                meterRegistry);
+        // Updates to existing jobs, each changing the salary so patches move jobs within rankings
+        List<JobPosting> updates = BenchmarkData.jobs(catalogSize, SKILLS, 1L);
+        events = new ArrayList<>(updates.size());
+        for (int i = 0; i < updates.size(); i++) {
+            updates.get(i).setId("job-" + i % updatedJobs);
+            updates.get(i).setSalary(updates.get(i).getSalary() + i % 7 * 1000);
+            events.add(JobPostingEvent.of(JobPostingEvent.Type.UPDATED, updates.get(i)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Timer latency = meterRegistry.get("recommendation.events.ring.latency").timer();
+        StringBuilder summary = new StringBuilder("\nring latency:");
+        for (ValueAtPercentile percentile : latency.takeSnapshot().percentileValues()) {
+            summary.append(String.format(" p%.0f=%.1fus", percentile.percentile() * 100,
+                    percentile.value(TimeUnit.MICROSECONDS)));
+        }
+        System.out.println(summary.append(" over ").append(latency.count()).append(" events"));
+        listener.stopScoring();
+        workScheduler.shutdown();
+    }
+
+    @Benchmark
+    public void consumeJobEvent() {
+        consume();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void consumeBurst(Backlog backlog) {
+        for (int i = 0; i < BURST; i++) {
+            consume();
+        }
+        deliverPoll();
+    }
+
+    private void consume() {
+        JobPostingEvent event = events.get((int) (offset % events.size()));
+        poll.add(new ConsumerRecord<>("job-postings", 0, offset++, event.jobId(), event));
+        if (poll.size() == batchSize) {
+            deliverPoll();
+        }
+    }
+
+    private void deliverPoll() {
+        if (!poll.isEmpty()) {
+            listener.handleJobPostings(poll);
+            poll = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * Lets the workers score the previous burst outside the measured time.
+     */
+    @State(Scope.Benchmark)
+    public static class Backlog {
+
+        @TearDown(Level.Invocation)
+        public void awaitScored(JobEventPipelineBenchmark benchmark) throws InterruptedException {
+            while (benchmark.listener.scoringBacklog() > 0) {
+                Thread.sleep(1);
+            }
+        }
+    }
+}
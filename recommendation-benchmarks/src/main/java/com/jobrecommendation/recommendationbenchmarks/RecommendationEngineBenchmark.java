@@ -0,0 +1,188 @@
+package com.jobrecommendation.recommendationbenchmarks;
+
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.JobFilter;
+import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.model.JobRecommendation;
+import com.jobrecommendation.recommendationservice.model.RecommendationResult;
+import com.jobrecommendation.recommendationservice.model.UserProfile;
+import com.jobrecommendation.recommendationservice.model.UserRecommendations;
+import com.jobrecommendation.recommendationservice.repository.JobCatalog;
+import com.jobrecommendation.recommendationservice.repository.JobColumns;
+import com.jobrecommendation.recommendationservice.repository.UserProfileStore;
+import com.jobrecommendation.recommendationservice.repository.UserRecommendationStore;
+import com.jobrecommendation.recommendationservice.service.FeatureEncoder;
+import com.jobrecommendation.recommendationservice.service.JobRanker;
+import com.jobrecommendation.recommendationservice.service.ParallelScorer;
+import com.jobrecommendation.recommendationservice.service.RecommendationEngine;
+import com.jobrecommendation.recommendationservice.service.RecommendationService;
+import com.jobrecommendation.recommendationservice.service.RequestCoalescer;
+import com.jobrecommendation.recommendationservice.service.SkillDictionary;
+import com.jobrecommendation.recommendationservice.service.WorkScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of the scoring engine and of the two ranking paths of
+ * {@link RecommendationService} over a synthetic catalog. Run with
+ * {@code -prof gc} to get allocation rates alongside throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class RecommendationEngineBenchmark {
+
+    private static final int LIMIT = 10;
+    private static final int PARALLEL_THRESHOLD = 50_000;
+    private static final int STORED_SIZE = 50;
+    private static final int BATCH_USER_GROUP = 64;
+    private static final Duration BUDGET = Duration.ofMillis(10);
+
+    @Param({"1000", "100000", "1000000"})
+    private int catalogSize;
+
+    @Param({"5", "20"})
+    private int skillsPerProfile;
+
+    /** heap or mapped; see {@code app.catalog.feature-store}. */
+    @Param({"heap"})
+    private String featureStore;
+
+    private Path featureDirectory;
+    private ForkJoinPool scoringPool;
+    private WorkScheduler workScheduler;
+    private RecommendationEngine recommendationEngine;
+    private JobRanker jobRanker;
+    private RecommendationService recommendationService;
+    private UserRecommendationStore userRecommendationStore;
+    private List<JobPosting> jobs;
+    private List<UserProfile> users;
+    private CompiledJobPosting[] compiledJobs;
+    private CompiledUserProfile[] compiledUsers;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        jobs = BenchmarkData.jobs(catalogSize, skillsPerProfile, 1L);
+        users = BenchmarkData.users(catalogSize, skillsPerProfile, 2L);
+
+        FeatureEncoder featureEncoder = new FeatureEncoder(new SkillDictionary());
+        featureDirectory = Files.createTempDirectory("job-features");
+        JobCatalog jobCatalog = new JobCatalog(featureEncoder, "mapped".equals(featureStore)
+                ? JobColumns.mapped(featureDirectory) : JobColumns.empty());
+        jobCatalog.loadAll(jobs);
+        UserProfileStore userProfileStore = new UserProfileStore(featureEncoder);
+        userProfileStore.loadAll(users);
+
+        scoringPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        recommendationEngine = new RecommendationEngine();
+        userRecommendationStore = new UserRecommendationStore(STORED_SIZE, catalogSize, Duration.ofHours(1),
+                Duration.ofHours(1), new SimpleMeterRegistry());
+        workScheduler = new WorkScheduler(Runtime.getRuntime().availableProcessors(), Map.of(),
+                new SimpleMeterRegistry());
+        jobRanker = new JobRanker(recommendationEngine, jobCatalog, featureEncoder, true);
+        // Catalog and profile store are already initialized, so the RestTemplate is never called
+        recommendationService = new RecommendationService(
+                recommendationEngine, new RestTemplate(), jobCatalog, userProfileStore, featureEncoder,
+                new ParallelScorer(scoringPool, PARALLEL_THRESHOLD), jobRanker, userRecommendationStore,
+                workScheduler, new RequestCoalescer(new SimpleMeterRegistry()), new SimpleMeterRegistry(),
+                BATCH_USER_GROUP);
+
+        compiledJobs = jobs.stream().map(featureEncoder::compile).toArray(CompiledJobPosting[]::new);
+        compiledUsers = users.stream().map(featureEncoder::compile).toArray(CompiledUserProfile[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        scoringPool.shutdown();
+        workScheduler.shutdown();
+        try (Stream<Path> files = Files.list(featureDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(featureDirectory);
+    }
+
+    @Benchmark
+    public JobRecommendation calculateJobMatch() {
+        int i = nextIndex();
+        return recommendationEngine.calculateJobMatch(users.get(i), jobs.get(i));
+    }
+
+    @Benchmark
+    public double calculateCompiledMatchScore() {
+        int i = nextIndex();
+        return recommendationEngine.calculateMatchScore(compiledUsers[i], compiledJobs[i]);
+    }
+
+    @Benchmark
+    public List<JobRecommendation> recommendationsForUser() {
+        // Drop the stored ranking so every call ranks the whole catalog
+        String userId = users.get(nextIndex()).getId();
+        userRecommendationStore.invalidate(userId);
+        return recommendationService.getRecommendationsForUser(userId, LIMIT);
+    }
+
+    @Benchmark
+    public RecommendationResult budgetedRecommendationsForUser() {
+        // As recommendationsForUser, but returning the best jobs found within the budget
+        String userId = users.get(nextIndex()).getId();
+        userRecommendationStore.invalidate(userId);
+        return recommendationService.getRecommendationsForUser(userId, LIMIT, false, JobFilter.NONE, BUDGET);
+    }
+
+    @Benchmark
+    public List<JobRecommendation> storedRecommendationsForUser() {
+        // The first call per user ranks the catalog, later ones read the stored ranking
+        return recommendationService.getRecommendationsForUser(users.get(nextIndex() % STORED_SIZE).getId(), LIMIT);
+    }
+
+    @Benchmark
+    public UserRecommendations prunedRanking() {
+        return jobRanker.rank(compiledUsers[nextIndex()], STORED_SIZE);
+    }
+
+    @Benchmark
+    public UserRecommendations exhaustiveRanking() {
+        return jobRanker.rankAll(compiledUsers[nextIndex()], STORED_SIZE, JobFilter.NONE);
+    }
+
+    @Benchmark
+    public List<JobRecommendation> matchingUsersForJob() {
+        return recommendationService.getMatchingUsersForJob(jobs.get(nextIndex()).getId(), LIMIT);
+    }
+
+    private int nextIndex() {
+        int i = cursor;
+        cursor = i + 1 == catalogSize ? 0 : i + 1;
+        return i;
+    }
+}
@@ -0,0 +1,31 @@
+package com.jobrecommendation.recommendationservice.config;
+
+import com.jobrecommendation.recommendationservice.repository.JobColumns;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class CatalogConfig {
+
+    @Value("${app.catalog.feature-store:heap}")
+    private String featureStore;
+
+    @Value("${app.catalog.feature-store-path:data/job-features}")
+    private Path featureStorePath;
+
+    /**
+     * Where the job catalog keeps the feature columns it scans: {@code heap}, or
+     * {@code mapped} for memory-mapped files under {@code feature-store-path}.
+     */
+    @Bean
+    public JobColumns jobColumns() {
+        return switch (featureStore) {
+            case "heap" -> JobColumns.empty();
+            case "mapped" -> JobColumns.mapped(featureStorePath);
+            default -> throw new IllegalArgumentException("Unknown job feature store: " + featureStore);
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.jobrecommendation.recommendationservice.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.model.JobPostingEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.io.IOException;
+
+/**
+ * Reads {@link JobPostingEvent} envelopes, and the bare job documents still
+ * on the topic from before the envelope, which a replay from the beginning
+ * reads too.
+ */
+public class JobPostingEventDeserializer implements Deserializer<JobPostingEvent> {
+
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+
+    @Override
+    public JobPostingEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            JsonNode json = objectMapper.readTree(data);
+            if (json.has("type") && json.has("jobPosting")) {
+                return objectMapper.treeToValue(json, JobPostingEvent.class);
+            }
+            return JobPostingEvent.legacy(objectMapper.treeToValue(json, JobPosting.class));
+        } catch (IOException e) {
+            throw new SerializationException("Can't deserialize job event from topic " + topic, e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.jobrecommendation.recommendationservice.config;
 
-import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.model.JobPostingEvent;
+import com.jobrecommendation.recommendationservice.model.UserProfile;
+import com.jobrecommendation.recommendationservice.service.ReplayTracker;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,27 +25,74 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${spring.kafka.consumer.auto-offset-reset:earliest}")
+    private String autoOffsetReset;
+
+    @Value("${app.recommendations.job-events.concurrency:3}")
+    private int jobEventConcurrency;
+
+    @Value("${app.recommendations.job-events.max-poll-records:500}")
+    private int jobEventMaxPollRecords;
+
     @Bean
-    public ConsumerFactory<String, JobPosting> jobPostingConsumerFactory() {
+    public ConsumerFactory<String, JobPostingEvent> jobPostingConsumerFactory() {
         Map<String, Object> config = new HashMap<>();
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JobPostingEventDeserializer.class);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, jobEventMaxPollRecords);
         
         return new DefaultKafkaConsumerFactory<>(
             config, 
             new StringDeserializer(),
-            new JsonDeserializer<>(JobPosting.class, false)
+            new JobPostingEventDeserializer()
         );
     }
 
+    /**
+     * Delivers job events a poll at a time, with one consumer thread per
+     * partition up to the configured concurrency; consumers beyond the
+     * partition count stay idle. Events are keyed by job id, so each job's
+     * events are on one partition and applied in order by one thread.
+     */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, JobPosting> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, JobPosting> factory =
+    public ConcurrentKafkaListenerContainerFactory<String, JobPostingEvent> kafkaListenerContainerFactory(
+            ReplayTracker replayTracker) {
+        ConcurrentKafkaListenerContainerFactory<String, JobPostingEvent> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(jobPostingConsumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(jobEventConcurrency);
+        factory.getContainerProperties().setConsumerRebalanceListener(replayTracker);
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, UserProfile> userProfileConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+
+        return new DefaultKafkaConsumerFactory<>(
+            config,
+            new StringDeserializer(),
+            new JsonDeserializer<>(UserProfile.class, false)
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserProfile> userProfileListenerContainerFactory(
+            ReplayTracker replayTracker) {
+        ConcurrentKafkaListenerContainerFactory<String, UserProfile> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(userProfileConsumerFactory());
+        factory.getContainerProperties().setConsumerRebalanceListener(replayTracker);
         return factory;
     }
 }
@@ -0,0 +1,86 @@
+package com.jobrecommendation.recommendationservice.config;
+
+import com.jobrecommendation.recommendationservice.service.WorkPriority;
+import com.jobrecommendation.recommendationservice.service.WorkScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ScoringConfig {
+
+    @Value("${app.scoring.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.recommendations.work.threads:0}")
+    private int workThreads;
+
+    @Value("${app.recommendations.work.interactive.queue-capacity:1000}")
+    private int interactiveQueueCapacity;
+
+    @Value("${app.recommendations.work.interactive.max-running:0}")
+    private int interactiveMaxRunning;
+
+    @Value("${app.recommendations.work.update.queue-capacity:1000}")
+    private int updateQueueCapacity;
+
+    @Value("${app.recommendations.work.update.max-running:2}")
+    private int updateMaxRunning;
+
+    @Value("${app.recommendations.work.bulk.queue-capacity:100}")
+    private int bulkQueueCapacity;
+
+    @Value("${app.recommendations.work.bulk.max-running:1}")
+    private int bulkMaxRunning;
+
+    /**
+     * Dedicated pool for parallel scoring, so large matching passes neither use
+     * the common pool nor grow beyond the configured parallelism.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool scoringPool() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(
+            threads,
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("scoring-worker-" + thread.getPoolIndex());
+                return thread;
+            },
+            null,
+            false,
+            threads,
+            threads,
+            1,
+            null,
+            60,
+            TimeUnit.SECONDS
+        );
+    }
+
+    /**
+     * Workers shared by interactive reads, event-driven updates and bulk refreshes,
+     * which take the waiting work in that order. Each priority has a bounded queue
+     * and a running limit; whatever the limits, update and bulk work together leave
+     * one worker to interactive reads.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public WorkScheduler workScheduler(MeterRegistry meterRegistry) {
+        int threads = workThreads > 0 ? workThreads : Runtime.getRuntime().availableProcessors();
+        return new WorkScheduler(threads, Map.of(
+            WorkPriority.INTERACTIVE, lane(interactiveQueueCapacity, interactiveMaxRunning, threads),
+            WorkPriority.UPDATE, lane(updateQueueCapacity, updateMaxRunning, threads),
+            WorkPriority.BULK, lane(bulkQueueCapacity, bulkMaxRunning, threads)
+        ), meterRegistry);
+    }
+
+    private static WorkScheduler.Lane lane(int queueCapacity, int maxRunning, int threads) {
+        return new WorkScheduler.Lane(queueCapacity, maxRunning > 0 ? Math.min(maxRunning, threads) : threads);
+    }
+}
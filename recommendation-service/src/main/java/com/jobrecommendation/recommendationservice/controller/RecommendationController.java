@@ -1,39 +1,151 @@
 package com.jobrecommendation.recommendationservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobrecommendation.recommendationservice.model.BatchRecommendationRequest;
+import com.jobrecommendation.recommendationservice.model.JobFilter;
 import com.jobrecommendation.recommendationservice.model.JobRecommendation;
+import com.jobrecommendation.recommendationservice.model.RecommendationResult;
+import com.jobrecommendation.recommendationservice.model.RefreshJob;
+import com.jobrecommendation.recommendationservice.model.UserRecommendationList;
 import com.jobrecommendation.recommendationservice.service.RecommendationService;
+import com.jobrecommendation.recommendationservice.service.RefreshJobService;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/recommendations")
 @RequiredArgsConstructor
+@Validated
 public class RecommendationController {
 
+    /** Most recommendations a request can ask for; rankings are sized by the limit. */
+    static final int MAX_LIMIT = 1_000;
+
+    /** Latency budget of a request in milliseconds, for callers that cannot pass {@code budgetMs}. */
+    static final String BUDGET_HEADER = "X-Latency-Budget-Ms";
+    /** Whether the recommendations are the exact best ones, or the best found within the budget. */
+    static final String COMPLETE_HEADER = "X-Recommendations-Complete";
+
     private final RecommendationService recommendationService;
+    private final RefreshJobService refreshJobService;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * @param budgetMs latency budget; once it runs out the best jobs found so far
+     *                 are returned, with {@value #COMPLETE_HEADER} set to false
+     */
     @GetMapping("/users/{userId}")
     public ResponseEntity<List<JobRecommendation>> getRecommendationsForUser(
             @PathVariable String userId,
-            @RequestParam(defaultValue = "10") int limit) {
-        List<JobRecommendation> recommendations = recommendationService.getRecommendationsForUser(userId, limit);
-        return ResponseEntity.ok(recommendations);
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_LIMIT) int limit,
+            @RequestParam(defaultValue = "false") boolean explain,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Double minSalary,
+            @RequestParam(required = false) Long budgetMs,
+            @RequestHeader(value = BUDGET_HEADER, required = false) Long budgetHeader) {
+        JobFilter filter = new JobFilter(location, minSalary);
+        Long budget = budgetMs != null ? budgetMs : budgetHeader;
+        if (budget == null) {
+            List<JobRecommendation> recommendations = recommendationService.getRecommendationsForUser(
+                    userId, limit, explain, filter);
+            return ResponseEntity.ok().header(COMPLETE_HEADER, "true").body(recommendations);
+        }
+        RecommendationResult result = recommendationService.getRecommendationsForUser(
+                userId, limit, explain, filter, Duration.ofMillis(budget));
+        return ResponseEntity.ok()
+                .header(COMPLETE_HEADER, String.valueOf(result.complete()))
+                .body(result.recommendations());
+    }
+
+    /**
+     * Streams one JSON line per requested user, as each group of users is ranked,
+     * so the response is never held in memory as a whole.
+     */
+    @PostMapping(value = "/users/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getRecommendationsForUsers(
+            @RequestBody BatchRecommendationRequest request) {
+        if (request.userIds() == null || request.userIds().isEmpty()
+                || request.limitOrDefault() < 1 || request.limitOrDefault() > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = outputStream -> recommendationService.getRecommendationsForUsers(
+                request.userIds(), request.limitOrDefault(), request.isExplain(),
+                recommendations -> writeLine(outputStream, recommendations));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/jobs/{jobId}/matching-users")
     public ResponseEntity<List<JobRecommendation>> getMatchingUsersForJob(
             @PathVariable String jobId,
-            @RequestParam(defaultValue = "10") int limit) {
-        List<JobRecommendation> matchingUsers = recommendationService.getMatchingUsersForJob(jobId, limit);
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_LIMIT) int limit,
+            @RequestParam(defaultValue = "false") boolean explain,
+            @RequestParam(required = false) String location) {
+        List<JobRecommendation> matchingUsers = recommendationService.getMatchingUsersForJob(
+                jobId, limit, explain, location);
         return ResponseEntity.ok(matchingUsers);
     }
 
+    /**
+     * Queues a refresh and answers with the job, whose status can be polled at
+     * its location, or with 429 when too many refreshes are waiting.
+     */
     @PostMapping("/refresh/{userId}")
-    public ResponseEntity<Void> refreshRecommendations(@PathVariable String userId) {
-        recommendationService.refreshRecommendations(userId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<RefreshJob> refreshRecommendations(@PathVariable String userId) {
+        RefreshJob job;
+        try {
+            job = refreshJobService.submit(userId);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        return ResponseEntity.accepted()
+                .location(UriComponentsBuilder.fromPath("/api/recommendations/refresh/jobs/{jobId}")
+                        .buildAndExpand(job.id()).toUri())
+                .body(job);
+    }
+
+    @GetMapping("/refresh/jobs/{jobId}")
+    public ResponseEntity<RefreshJob> getRefreshJob(@PathVariable String jobId) {
+        return refreshJobService.findById(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Void> handleInvalidParameter() {
+        return ResponseEntity.badRequest().build();
+    }
+
+    /**
+     * The ranking work queues are full; the caller should retry later.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> handleRejectedWork() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    private void writeLine(OutputStream outputStream, UserRecommendationList recommendations) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(recommendations));
+            outputStream.write('\n');
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
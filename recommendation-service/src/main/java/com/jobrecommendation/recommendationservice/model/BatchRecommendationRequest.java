@@ -0,0 +1,20 @@
+package com.jobrecommendation.recommendationservice.model;
+
+import java.util.List;
+
+/**
+ * Body of a batch recommendation request. A null limit or explain flag takes
+ * the same default as the single-user endpoint.
+ */
+public record BatchRecommendationRequest(List<String> userIds, Integer limit, Boolean explain) {
+
+    public static final int DEFAULT_LIMIT = 10;
+
+    public int limitOrDefault() {
+        return limit == null ? DEFAULT_LIMIT : limit;
+    }
+
+    public boolean isExplain() {
+        return Boolean.TRUE.equals(explain);
+    }
+}
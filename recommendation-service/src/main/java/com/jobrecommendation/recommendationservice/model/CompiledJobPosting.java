@@ -0,0 +1,18 @@
+package com.jobrecommendation.recommendationservice.model;
+
+import lombok.Value;
+
+/**
+ * Scoring form of a {@link JobPosting}: strings are replaced by dictionary ids,
+ * the experience level by its ordinal (0 when unknown) and the salary by a
+ * primitive (NaN when missing).
+ */
+@Value
+public class CompiledJobPosting {
+    String jobId;
+    int[] requiredSkillIds;
+    int locationId;
+    int experienceLevel;
+    double salary;
+    int companyId;
+}
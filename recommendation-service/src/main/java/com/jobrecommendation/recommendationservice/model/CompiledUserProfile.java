@@ -0,0 +1,18 @@
+package com.jobrecommendation.recommendationservice.model;
+
+import lombok.Value;
+
+/**
+ * Scoring form of a {@link UserProfile}: strings are replaced by dictionary ids,
+ * the experience level by its ordinal (0 when unknown) and the expected salary
+ * by a primitive (NaN when missing).
+ */
+@Value
+public class CompiledUserProfile {
+    String userId;
+    int[] skillIds;
+    int locationId;
+    int experienceLevel;
+    double expectedSalary;
+    int[] preferredCompanyIds;
+}
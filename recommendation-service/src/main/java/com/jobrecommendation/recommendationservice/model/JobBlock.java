@@ -0,0 +1,39 @@
+package com.jobrecommendation.recommendationservice.model;
+
+import lombok.Getter;
+
+/**
+ * Reusable buffer holding the scoring features of a block of catalog rows as
+ * primitive arrays, one per feature, for scoring one user against the whole
+ * block at a time. Entries past {@link #getSize()} are stale.
+ */
+@Getter
+public final class JobBlock {
+
+    /** Each row's skill match for the user being scored, filled in by the caller. */
+    private final double[] skillMatches;
+    private final int[] locationIds;
+    private final int[] experienceLevels;
+    private final double[] salaries;
+    private final int[] companyIds;
+    private int size;
+
+    public JobBlock(int capacity) {
+        this.skillMatches = new double[capacity];
+        this.locationIds = new int[capacity];
+        this.experienceLevels = new int[capacity];
+        this.salaries = new double[capacity];
+        this.companyIds = new int[capacity];
+    }
+
+    public int capacity() {
+        return skillMatches.length;
+    }
+
+    public void setSize(int size) {
+        if (size < 0 || size > capacity()) {
+            throw new IllegalArgumentException("Block size " + size + " outside of capacity " + capacity());
+        }
+        this.size = size;
+    }
+}
@@ -0,0 +1,14 @@
+package com.jobrecommendation.recommendationservice.model;
+
+/**
+ * Optional restrictions on the jobs a ranking may return, pushed down into the
+ * catalog partitions. A null field does not restrict anything.
+ */
+public record JobFilter(String location, Double minSalary) {
+
+    public static final JobFilter NONE = new JobFilter(null, null);
+
+    public boolean isEmpty() {
+        return location == null && minSalary == null;
+    }
+}
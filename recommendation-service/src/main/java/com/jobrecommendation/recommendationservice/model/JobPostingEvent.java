@@ -0,0 +1,27 @@
+package com.jobrecommendation.recommendationservice.model;
+
+import java.time.Instant;
+
+/**
+ * An event from the {@code job-postings} topic, keyed by {@code jobId}.
+ * {@code jobPosting} is the full document after the change and
+ * {@code version} the envelope's schema version. Bare job documents
+ * published before the envelope are read as version 0.
+ */
+public record JobPostingEvent(Type type, int version, String jobId, Instant occurredAt, JobPosting jobPosting) {
+
+    public static final int VERSION = 1;
+
+    public enum Type {
+        CREATED, UPDATED, DEACTIVATED
+    }
+
+    public static JobPostingEvent of(Type type, JobPosting jobPosting) {
+        return new JobPostingEvent(type, VERSION, jobPosting.getId(), Instant.now(), jobPosting);
+    }
+
+    public static JobPostingEvent legacy(JobPosting jobPosting) {
+        Type type = Boolean.FALSE.equals(jobPosting.getIsActive()) ? Type.DEACTIVATED : Type.UPDATED;
+        return new JobPostingEvent(type, 0, jobPosting.getId(), null, jobPosting);
+    }
+}
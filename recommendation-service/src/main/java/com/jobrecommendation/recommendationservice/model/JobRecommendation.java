@@ -1,12 +1,15 @@
 package com.jobrecommendation.recommendationservice.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
-import java.util.Map;
 
 @Data
 public class JobRecommendation {
     private String userId;
     private String jobId;
     private double matchScore;
-    private Map<String, Double> matchFactors;
+
+    // Only populated when an explanation was requested
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private MatchFactors matchFactors;
 }
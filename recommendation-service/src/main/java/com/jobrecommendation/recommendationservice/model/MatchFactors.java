@@ -0,0 +1,13 @@
+package com.jobrecommendation.recommendationservice.model;
+
+/**
+ * Per-factor breakdown of a match score, each factor in [0, 1].
+ */
+public record MatchFactors(
+    double skillMatch,
+    double locationMatch,
+    double experienceMatch,
+    double salaryMatch,
+    double companyMatch
+) {
+}
@@ -0,0 +1,10 @@
+package com.jobrecommendation.recommendationservice.model;
+
+import java.util.List;
+
+/**
+ * Recommendations for a request with a latency budget. When the budget ran
+ * out, {@code complete} is false and the list holds the best jobs found so far.
+ */
+public record RecommendationResult(List<JobRecommendation> recommendations, boolean complete) {
+}
@@ -0,0 +1,31 @@
+package com.jobrecommendation.recommendationservice.model;
+
+import java.time.Instant;
+
+/**
+ * A background re-ranking of one user's recommendations. Each state change
+ * yields a new instance.
+ */
+public record RefreshJob(String id, String userId, Status status, Instant submittedAt, Instant startedAt,
+                         Instant finishedAt, String error) {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    public static RefreshJob queued(String id, String userId, Instant now) {
+        return new RefreshJob(id, userId, Status.QUEUED, now, null, null, null);
+    }
+
+    public RefreshJob running(Instant now) {
+        return new RefreshJob(id, userId, Status.RUNNING, submittedAt, now, null, null);
+    }
+
+    public RefreshJob succeeded(Instant now) {
+        return new RefreshJob(id, userId, Status.SUCCEEDED, submittedAt, startedAt, now, null);
+    }
+
+    public RefreshJob failed(Instant now, String error) {
+        return new RefreshJob(id, userId, Status.FAILED, submittedAt, startedAt, now, error);
+    }
+}
@@ -0,0 +1,26 @@
+package com.jobrecommendation.recommendationservice.model;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Jobs sharing at least one skill with a user, each with the number of the
+ * user's skills it requires, counted from the skill posting lists without
+ * touching the job itself.
+ */
+@Value
+public class SkillCandidates {
+    List<CompiledJobPosting> jobs;
+    int[] matchingSkills;
+    Set<String> jobIds;
+
+    public int size() {
+        return jobs.size();
+    }
+
+    public boolean contains(String jobId) {
+        return jobIds.contains(jobId);
+    }
+}
@@ -0,0 +1,22 @@
+package com.jobrecommendation.recommendationservice.model;
+
+import lombok.Value;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The service's replicated state at some point of the event streams: the
+ * compiled jobs with the dictionaries their ids refer to, the user profiles,
+ * and for every consumed partition the offset to resume from.
+ */
+@Value
+public class StateSnapshot {
+    Map<TopicPartition, Long> offsets;
+    List<String> skillTerms;
+    List<String> locationTerms;
+    List<String> companyTerms;
+    List<CompiledJobPosting> jobs;
+    List<UserProfile> profiles;
+}
@@ -0,0 +1,9 @@
+package com.jobrecommendation.recommendationservice.model;
+
+import java.util.List;
+
+/**
+ * One user's recommendations, written as one line of a batch response.
+ */
+public record UserRecommendationList(String userId, List<JobRecommendation> recommendations) {
+}
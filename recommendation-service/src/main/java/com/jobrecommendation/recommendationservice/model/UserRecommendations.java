@@ -0,0 +1,139 @@
+package com.jobrecommendation.recommendationservice.model;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * A user's stored ranking: job ids ordered by descending score, then job id,
+ * with the compiled profile they were scored against. Every job of the catalog that
+ * is not in the list scores at most {@link #getFloor()}, which is what allows
+ * the list to be patched per job event instead of recomputed. Instances are
+ * immutable; patches return a new instance.
+ */
+@Getter
+public final class UserRecommendations {
+
+    private final CompiledUserProfile user;
+    private final String[] jobIds;
+    private final double[] scores;
+    private final int capacity;
+    private final double floor;
+    /** {@link System#nanoTime()} of the full ranking this list descends from; patches keep it. */
+    private final long rankedAt;
+    /** False for the best jobs among those visited before a deadline; such a list is not stored. */
+    private final boolean complete;
+
+    private UserRecommendations(CompiledUserProfile user, String[] jobIds, double[] scores, int capacity,
+                                double floor, long rankedAt, boolean complete) {
+        this.user = user;
+        this.jobIds = jobIds;
+        this.scores = scores;
+        this.capacity = capacity;
+        this.floor = floor;
+        this.rankedAt = rankedAt;
+        this.complete = complete;
+    }
+
+    /**
+     * @param exhaustive whether the list holds every job of the catalog, i.e.
+     *                   the catalog had fewer jobs than the capacity
+     */
+    public static UserRecommendations of(CompiledUserProfile user, String[] jobIds, double[] scores,
+                                         int capacity, boolean exhaustive) {
+        double floor = exhaustive || scores.length == 0 ? Double.NEGATIVE_INFINITY : scores[scores.length - 1];
+        return new UserRecommendations(user, jobIds, scores, capacity, floor, System.nanoTime(), true);
+    }
+
+    /**
+     * The best of the jobs visited before a ranking ran out of time. Nothing is
+     * known about the jobs that were not visited, so the list serves no limit.
+     */
+    public static UserRecommendations partial(CompiledUserProfile user, String[] jobIds, double[] scores,
+                                              int capacity) {
+        return new UserRecommendations(user, jobIds, scores, capacity, Double.POSITIVE_INFINITY, System.nanoTime(),
+                false);
+    }
+
+    public String getUserId() {
+        return user.getUserId();
+    }
+
+    public int size() {
+        return jobIds.length;
+    }
+
+    /**
+     * Whether the first {@code limit} entries are known to be the exact top-{@code limit}.
+     */
+    public boolean canServe(int limit) {
+        return complete && (limit <= jobIds.length || floor == Double.NEGATIVE_INFINITY);
+    }
+
+    public boolean contains(String jobId) {
+        return indexOf(jobId) >= 0;
+    }
+
+    /**
+     * Applies a new or re-scored job. A job that no longer makes the list is
+     * dropped, which may leave fewer entries than the capacity until the list
+     * is recomputed.
+     */
+    public UserRecommendations withScore(String jobId, double score) {
+        UserRecommendations base = withoutJob(jobId);
+        if (score < base.floor) {
+            return base;
+        }
+
+        int position = 0;
+        while (position < base.scores.length && (base.scores[position] > score
+                || (base.scores[position] == score && base.jobIds[position].compareTo(jobId) < 0))) {
+            position++;
+        }
+        int length = base.jobIds.length + 1;
+        String[] newJobIds = new String[length];
+        double[] newScores = new double[length];
+        System.arraycopy(base.jobIds, 0, newJobIds, 0, position);
+        System.arraycopy(base.scores, 0, newScores, 0, position);
+        newJobIds[position] = jobId;
+        newScores[position] = score;
+        System.arraycopy(base.jobIds, position, newJobIds, position + 1, base.jobIds.length - position);
+        System.arraycopy(base.scores, position, newScores, position + 1, base.scores.length - position);
+
+        if (length <= capacity) {
+            return new UserRecommendations(user, newJobIds, newScores, capacity, base.floor, rankedAt, complete);
+        }
+        // The evicted entry joins the jobs outside the list, so it raises the floor
+        double evictedScore = newScores[capacity];
+        return new UserRecommendations(user, Arrays.copyOf(newJobIds, capacity), Arrays.copyOf(newScores, capacity),
+                capacity, Math.max(base.floor, evictedScore), rankedAt, complete);
+    }
+
+    /**
+     * Removes a job without backfilling: the jobs outside the list are not
+     * known, so the list shrinks while the floor stays. Reads of more entries
+     * than are left fail {@link #canServe(int)} and re-rank the user.
+     */
+    public UserRecommendations withoutJob(String jobId) {
+        int index = indexOf(jobId);
+        if (index < 0) {
+            return this;
+        }
+        String[] newJobIds = new String[jobIds.length - 1];
+        double[] newScores = new double[scores.length - 1];
+        System.arraycopy(jobIds, 0, newJobIds, 0, index);
+        System.arraycopy(scores, 0, newScores, 0, index);
+        System.arraycopy(jobIds, index + 1, newJobIds, index, jobIds.length - index - 1);
+        System.arraycopy(scores, index + 1, newScores, index, scores.length - index - 1);
+        return new UserRecommendations(user, newJobIds, newScores, capacity, floor, rankedAt, complete);
+    }
+
+    private int indexOf(String jobId) {
+        for (int i = 0; i < jobIds.length; i++) {
+            if (jobIds[i].equals(jobId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,133 @@
+package com.jobrecommendation.recommendationservice.repository;
+
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.JobBlock;
+import com.jobrecommendation.recommendationservice.service.TermDictionary;
+
+import java.util.Arrays;
+
+/**
+ * {@link JobColumns} kept in heap arrays, one per feature, with every job's
+ * skill ids stored contiguously in a shared pool addressed by offsets.
+ */
+final class HeapJobColumns extends JobColumns {
+
+    static final HeapJobColumns EMPTY = new HeapJobColumns(0, 0, new String[0], new long[0], new int[0], new int[0],
+            new int[0], new double[0], new int[1], new int[0]);
+
+    private final int[] locationIds;
+    private final int[] experienceLevels;
+    private final int[] companyIds;
+    private final double[] salaries;
+    /** Row {@code r} owns {@code skillPool[skillOffsets[r]]} up to {@code skillPool[skillOffsets[r + 1]]}. */
+    private final int[] skillOffsets;
+    private final int[] skillPool;
+
+    private HeapJobColumns(int rowCount, int liveCount, String[] jobIds, long[] deleted, int[] locationIds,
+                           int[] experienceLevels, int[] companyIds, double[] salaries, int[] skillOffsets,
+                           int[] skillPool) {
+        super(rowCount, liveCount, jobIds, deleted);
+        this.locationIds = locationIds;
+        this.experienceLevels = experienceLevels;
+        this.companyIds = companyIds;
+        this.salaries = salaries;
+        this.skillOffsets = skillOffsets;
+        this.skillPool = skillPool;
+    }
+
+    @Override
+    public int locationId(int row) {
+        return locationIds[row];
+    }
+
+    @Override
+    public int experienceLevel(int row) {
+        return experienceLevels[row];
+    }
+
+    @Override
+    public int companyId(int row) {
+        return companyIds[row];
+    }
+
+    @Override
+    public double salary(int row) {
+        return salaries[row];
+    }
+
+    @Override
+    public int skillCount(int row) {
+        return skillOffsets[row + 1] - skillOffsets[row];
+    }
+
+    @Override
+    public int skillId(int row, int index) {
+        return skillPool[skillOffsets[row] + index];
+    }
+
+    @Override
+    public int countCommonSkills(int[] skillIds, int row) {
+        return TermDictionary.countCommon(skillIds, skillPool, skillOffsets[row], skillOffsets[row + 1]);
+    }
+
+    @Override
+    public CompiledJobPosting toCompiled(int row) {
+        return new CompiledJobPosting(jobIds[row], Arrays.copyOfRange(skillPool, skillOffsets[row],
+                skillOffsets[row + 1]), locationIds[row], experienceLevels[row], salaries[row], companyIds[row]);
+    }
+
+    @Override
+    public void copyFeatures(int from, int to, JobBlock block) {
+        block.setSize(to - from);
+        System.arraycopy(locationIds, from, block.getLocationIds(), 0, to - from);
+        System.arraycopy(experienceLevels, from, block.getExperienceLevels(), 0, to - from);
+        System.arraycopy(salaries, from, block.getSalaries(), 0, to - from);
+        System.arraycopy(companyIds, from, block.getCompanyIds(), 0, to - from);
+    }
+
+    @Override
+    JobColumns appendFeatures(CompiledJobPosting job, String[] newJobIds, long[] newDeleted) {
+        int[] skills = job.getRequiredSkillIds();
+        int row = rowCount;
+        int skillStart = skillOffsets[row];
+
+        int[] newLocationIds = locationIds;
+        int[] newExperienceLevels = experienceLevels;
+        int[] newCompanyIds = companyIds;
+        double[] newSalaries = salaries;
+        int[] newSkillOffsets = skillOffsets;
+        if (row == locationIds.length) {
+            int capacity = newJobIds.length;
+            newLocationIds = Arrays.copyOf(locationIds, capacity);
+            newExperienceLevels = Arrays.copyOf(experienceLevels, capacity);
+            newCompanyIds = Arrays.copyOf(companyIds, capacity);
+            newSalaries = Arrays.copyOf(salaries, capacity);
+            newSkillOffsets = Arrays.copyOf(skillOffsets, capacity + 1);
+        }
+        int[] newSkillPool = skillPool;
+        if (skillStart + skills.length > skillPool.length) {
+            newSkillPool = Arrays.copyOf(skillPool, Math.max(INITIAL_ROWS, Math.max(skillStart + skills.length,
+                    skillPool.length * 2)));
+        }
+
+        newLocationIds[row] = job.getLocationId();
+        newExperienceLevels[row] = job.getExperienceLevel();
+        newCompanyIds[row] = job.getCompanyId();
+        newSalaries[row] = job.getSalary();
+        System.arraycopy(skills, 0, newSkillPool, skillStart, skills.length);
+        newSkillOffsets[row + 1] = skillStart + skills.length;
+        return new HeapJobColumns(row + 1, liveCount + 1, newJobIds, newDeleted, newLocationIds, newExperienceLevels,
+                newCompanyIds, newSalaries, newSkillOffsets, newSkillPool);
+    }
+
+    @Override
+    JobColumns withDeleted(long[] newDeleted, int newLiveCount) {
+        return new HeapJobColumns(rowCount, newLiveCount, jobIds, newDeleted, locationIds, experienceLevels,
+                companyIds, salaries, skillOffsets, skillPool);
+    }
+
+    @Override
+    JobColumns emptyCopy() {
+        return EMPTY;
+    }
+}
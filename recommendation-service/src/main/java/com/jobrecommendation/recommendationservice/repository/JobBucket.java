@@ -0,0 +1,116 @@
+package com.jobrecommendation.recommendationservice.repository;
+
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Immutable partition of the catalog holding the jobs of one location and
+ * required experience level, sorted by ascending salary (missing salaries
+ * first, then by job id). Every job in a bucket gets the same location and
+ * experience factors for a given user. Updates copy the bucket, so readers
+ * never need a lock.
+ */
+public final class JobBucket {
+
+    private static final Comparator<CompiledJobPosting> BY_SALARY =
+            Comparator.comparingDouble(JobBucket::salaryKey).thenComparing(CompiledJobPosting::getJobId);
+
+    @Getter
+    private final int locationId;
+    @Getter
+    private final int experienceLevel;
+    private final CompiledJobPosting[] jobsBySalary;
+
+    private JobBucket(int locationId, int experienceLevel, CompiledJobPosting[] jobsBySalary) {
+        this.locationId = locationId;
+        this.experienceLevel = experienceLevel;
+        this.jobsBySalary = jobsBySalary;
+    }
+
+    public static JobBucket of(int locationId, int experienceLevel, Collection<CompiledJobPosting> jobs) {
+        CompiledJobPosting[] sorted = jobs.toArray(CompiledJobPosting[]::new);
+        Arrays.sort(sorted, BY_SALARY);
+        return new JobBucket(locationId, experienceLevel, sorted);
+    }
+
+    public JobBucket withJobs(Collection<CompiledJobPosting> jobs) {
+        CompiledJobPosting[] merged = Arrays.copyOf(jobsBySalary, jobsBySalary.length + jobs.size());
+        int i = jobsBySalary.length;
+        for (CompiledJobPosting job : jobs) {
+            merged[i++] = job;
+        }
+        Arrays.sort(merged, BY_SALARY);
+        return new JobBucket(locationId, experienceLevel, merged);
+    }
+
+    public JobBucket withJob(CompiledJobPosting job) {
+        int position = Arrays.binarySearch(jobsBySalary, job, BY_SALARY);
+        int insertAt = position >= 0 ? position : -position - 1;
+        CompiledJobPosting[] updated = new CompiledJobPosting[jobsBySalary.length + 1];
+        System.arraycopy(jobsBySalary, 0, updated, 0, insertAt);
+        updated[insertAt] = job;
+        System.arraycopy(jobsBySalary, insertAt, updated, insertAt + 1, jobsBySalary.length - insertAt);
+        return new JobBucket(locationId, experienceLevel, updated);
+    }
+
+    /**
+     * Returns the bucket without the given job, or null when it would be empty.
+     */
+    public JobBucket withoutJob(CompiledJobPosting job) {
+        int position = Arrays.binarySearch(jobsBySalary, job, BY_SALARY);
+        if (position < 0 || jobsBySalary[position] != job) {
+            return this;
+        }
+        if (jobsBySalary.length == 1) {
+            return null;
+        }
+        CompiledJobPosting[] updated = new CompiledJobPosting[jobsBySalary.length - 1];
+        System.arraycopy(jobsBySalary, 0, updated, 0, position);
+        System.arraycopy(jobsBySalary, position + 1, updated, position, jobsBySalary.length - position - 1);
+        return new JobBucket(locationId, experienceLevel, updated);
+    }
+
+    public int size() {
+        return jobsBySalary.length;
+    }
+
+    /**
+     * Job at the given position in ascending salary order.
+     */
+    public CompiledJobPosting get(int index) {
+        return jobsBySalary[index];
+    }
+
+    /**
+     * Position of the first job paying at least {@code minSalary}; jobs without a
+     * salary never qualify unless {@code minSalary} is negative infinity.
+     */
+    public int firstIndexWithSalaryAtLeast(double minSalary) {
+        int low = 0;
+        int high = jobsBySalary.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (salaryKey(jobsBySalary[mid]) < minSalary) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Highest salary in the bucket, or NaN when no job has one.
+     */
+    public double maxSalary() {
+        return jobsBySalary.length == 0 ? Double.NaN : jobsBySalary[jobsBySalary.length - 1].getSalary();
+    }
+
+    private static double salaryKey(CompiledJobPosting job) {
+        return Double.isNaN(job.getSalary()) ? Double.NEGATIVE_INFINITY : job.getSalary();
+    }
+}
@@ -0,0 +1,285 @@
+package com.jobrecommendation.recommendationservice.repository;
+
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.model.SkillCandidates;
+import com.jobrecommendation.recommendationservice.service.FeatureEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local replica of the active job postings, kept up to date from the
+ * {@code job-postings} topic so recommendation requests don't have to
+ * fetch the whole catalog from job-posting-service. Jobs are compiled
+ * into their scoring form once, at ingest, indexed by required skill so a
+ * user's candidates can be gathered without walking the whole catalog, and
+ * partitioned into {@link JobBucket}s by location and experience level.
+ * Full scans read the dictionary-encoded {@link JobColumns} snapshot instead
+ * of the job objects. The original postings are not retained; the columns and
+ * compiled jobs carry everything scoring needs. Writes are serialized so the
+ * indexes always agree with the catalog; reads never lock.
+ */
+@Repository
+@Slf4j
+public class JobCatalog {
+
+    private final FeatureEncoder featureEncoder;
+    private final ConcurrentMap<String, CompiledJobPosting> compiledJobs = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, ConcurrentMap<String, CompiledJobPosting>> jobsBySkill = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, JobBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Integer> rowsByJobId = new HashMap<>();
+    /** Jobs removed by events before the catalog was seeded, which a stale listing must not bring back. */
+    private final Set<String> removedBeforeLoad = new HashSet<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile JobColumns columns;
+    private volatile boolean initialized;
+
+    public JobCatalog(FeatureEncoder featureEncoder) {
+        this(featureEncoder, JobColumns.empty());
+    }
+
+    /**
+     * @param columns empty snapshot deciding where the catalog's feature columns are stored
+     */
+    @Autowired
+    public JobCatalog(FeatureEncoder featureEncoder, JobColumns columns) {
+        this.featureEncoder = featureEncoder;
+        this.columns = columns;
+    }
+
+    public synchronized void upsert(JobPosting jobPosting) {
+        if (jobPosting == null || jobPosting.getId() == null) {
+            return;
+        }
+        if (Boolean.FALSE.equals(jobPosting.getIsActive())) {
+            remove(jobPosting.getId());
+        } else {
+            putCompiled(featureEncoder.compile(jobPosting));
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Applies a batch of job events in order, as {@link #upsert} would one by
+     * one. Jobs are compiled before taking the write lock, so concurrent
+     * batches only serialize on the index updates.
+     */
+    public void upsertAll(List<JobPosting> jobPostings) {
+        List<CompiledJobPosting> compiled = new ArrayList<>(jobPostings.size());
+        for (JobPosting jobPosting : jobPostings) {
+            boolean active = jobPosting != null && jobPosting.getId() != null
+                    && !Boolean.FALSE.equals(jobPosting.getIsActive());
+            compiled.add(active ? featureEncoder.compile(jobPosting) : null);
+        }
+        synchronized (this) {
+            for (int i = 0; i < jobPostings.size(); i++) {
+                if (compiled.get(i) != null) {
+                    putCompiled(compiled.get(i));
+                    version.incrementAndGet();
+                } else if (jobPostings.get(i) != null && jobPostings.get(i).getId() != null) {
+                    remove(jobPostings.get(i).getId());
+                }
+            }
+        }
+    }
+
+    public synchronized void remove(String jobId) {
+        if (!initialized) {
+            removedBeforeLoad.add(jobId);
+        }
+        CompiledJobPosting previous = compiledJobs.remove(jobId);
+        if (previous != null) {
+            unindex(previous);
+            publishColumns(columns.delete(rowsByJobId.remove(jobId)));
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Seeds the catalog with a full listing. Entries already received from the
+     * event stream are newer than the listing, so they are kept as they are,
+     * and jobs the stream already removed stay removed.
+     */
+    public synchronized void loadAll(Collection<JobPosting> jobPostings) {
+        List<CompiledJobPosting> compiledJobPostings = new ArrayList<>();
+        for (JobPosting jobPosting : jobPostings) {
+            if (jobPosting != null && jobPosting.getId() != null
+                    && !Boolean.FALSE.equals(jobPosting.getIsActive())
+                    && !compiledJobs.containsKey(jobPosting.getId())) {
+                compiledJobPostings.add(featureEncoder.compile(jobPosting));
+            }
+        }
+        loadAllCompiled(compiledJobPostings);
+    }
+
+    /**
+     * Seeds the catalog with jobs already compiled against the current
+     * dictionaries, e.g. from a state snapshot. Same precedence as {@link #loadAll}.
+     */
+    public synchronized void loadAllCompiled(Collection<CompiledJobPosting> compiledJobPostings) {
+        Map<Long, List<CompiledJobPosting>> loadedByBucket = new HashMap<>();
+        JobColumns loadedColumns = columns;
+        for (CompiledJobPosting compiledJob : compiledJobPostings) {
+            if (!compiledJobs.containsKey(compiledJob.getJobId())
+                    && !removedBeforeLoad.contains(compiledJob.getJobId())) {
+                compiledJobs.put(compiledJob.getJobId(), compiledJob);
+                indexBySkill(compiledJob);
+                loadedByBucket.computeIfAbsent(bucketKey(compiledJob), key -> new ArrayList<>()).add(compiledJob);
+                rowsByJobId.put(compiledJob.getJobId(), loadedColumns.rowCount());
+                loadedColumns = loadedColumns.append(compiledJob);
+            }
+        }
+        publishColumns(loadedColumns);
+        // Buckets are copied on write, so merge each one once instead of once per job
+        loadedByBucket.forEach((key, loaded) -> {
+            CompiledJobPosting first = loaded.get(0);
+            buckets.compute(key, (k, bucket) -> bucket == null
+                    ? JobBucket.of(first.getLocationId(), first.getExperienceLevel(), loaded)
+                    : bucket.withJobs(loaded));
+        });
+        version.incrementAndGet();
+        initialized = true;
+        removedBeforeLoad.clear();
+        log.info("Job catalog initialized with {} active job postings", compiledJobs.size());
+    }
+
+    public Optional<CompiledJobPosting> findCompiledById(String jobId) {
+        return Optional.ofNullable(compiledJobs.get(jobId));
+    }
+
+    public List<CompiledJobPosting> findAllCompiled() {
+        return new ArrayList<>(compiledJobs.values());
+    }
+
+    /**
+     * Jobs requiring at least one of the given skills, each listed once with the
+     * number of those skills it requires. Every other job shares no skill with them.
+     */
+    public SkillCandidates findCandidatesBySkills(int[] skillIds) {
+        Map<String, Integer> positions = new HashMap<>();
+        List<CompiledJobPosting> jobs = new ArrayList<>();
+        int[] matchingSkills = new int[16];
+        for (int skillId : skillIds) {
+            ConcurrentMap<String, CompiledJobPosting> postings = jobsBySkill.get(skillId);
+            if (postings == null) {
+                continue;
+            }
+            for (CompiledJobPosting job : postings.values()) {
+                Integer position = positions.putIfAbsent(job.getJobId(), jobs.size());
+                if (position == null) {
+                    if (jobs.size() == matchingSkills.length) {
+                        matchingSkills = Arrays.copyOf(matchingSkills, matchingSkills.length * 2);
+                    }
+                    matchingSkills[jobs.size()] = 1;
+                    jobs.add(job);
+                } else if (jobs.get(position) == job) {
+                    matchingSkills[position]++;
+                } else {
+                    // Job replaced while gathering: count it as matching every skill so its bound stays safe
+                    matchingSkills[position] = jobs.get(position).getRequiredSkillIds().length;
+                }
+            }
+        }
+        return new SkillCandidates(jobs, Arrays.copyOf(matchingSkills, jobs.size()), positions.keySet());
+    }
+
+    /**
+     * The catalog's active jobs in columnar form, as of the latest write. The
+     * snapshot is immutable, so a scan sees one consistent catalog throughout.
+     */
+    public JobColumns snapshot() {
+        return columns;
+    }
+
+    /**
+     * Current partitions of the catalog; each is an immutable snapshot.
+     */
+    public List<JobBucket> findAllBuckets() {
+        return new ArrayList<>(buckets.values());
+    }
+
+    public int size() {
+        return compiledJobs.size();
+    }
+
+    /**
+     * Incremented on every change, so readers can tell whether the catalog moved
+     * while they were working from it.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    private void putCompiled(CompiledJobPosting compiledJob) {
+        removedBeforeLoad.remove(compiledJob.getJobId());
+        compiledJobs.compute(compiledJob.getJobId(), (id, previous) -> {
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(compiledJob);
+            return compiledJob;
+        });
+        JobColumns updated = columns;
+        Integer previousRow = rowsByJobId.put(compiledJob.getJobId(), updated.rowCount());
+        if (previousRow != null) {
+            updated = updated.delete(previousRow);
+        }
+        publishColumns(updated.append(compiledJob));
+    }
+
+    private void publishColumns(JobColumns updated) {
+        if (updated.needsCompaction()) {
+            updated = updated.compact();
+            rowsByJobId.clear();
+            for (int row = 0; row < updated.rowCount(); row++) {
+                rowsByJobId.put(updated.jobId(row), row);
+            }
+        }
+        columns = updated;
+    }
+
+    private void index(CompiledJobPosting compiledJob) {
+        indexBySkill(compiledJob);
+        buckets.compute(bucketKey(compiledJob), (key, bucket) -> bucket == null
+                ? JobBucket.of(compiledJob.getLocationId(), compiledJob.getExperienceLevel(), List.of(compiledJob))
+                : bucket.withJob(compiledJob));
+    }
+
+    private void indexBySkill(CompiledJobPosting compiledJob) {
+        for (int skillId : compiledJob.getRequiredSkillIds()) {
+            jobsBySkill.computeIfAbsent(skillId, key -> new ConcurrentHashMap<>()).put(compiledJob.getJobId(), compiledJob);
+        }
+    }
+
+    private void unindex(CompiledJobPosting compiledJob) {
+        buckets.computeIfPresent(bucketKey(compiledJob), (key, bucket) -> bucket.withoutJob(compiledJob));
+        for (int skillId : compiledJob.getRequiredSkillIds()) {
+            jobsBySkill.computeIfPresent(skillId, (key, postings) -> {
+                postings.remove(compiledJob.getJobId());
+                return postings.isEmpty() ? null : postings;
+            });
+        }
+    }
+
+    private static long bucketKey(CompiledJobPosting compiledJob) {
+        return ((long) compiledJob.getLocationId() << 32) | (compiledJob.getExperienceLevel() & 0xffffffffL);
+    }
+}
@@ -0,0 +1,158 @@
+package com.jobrecommendation.recommendationservice.repository;
+
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.JobBlock;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of the catalog's scoring features in columnar form, one
+ * row per job version. Strings only survive as job ids; locations, companies
+ * and skills are dictionary ids. The features live either in heap arrays or,
+ * for catalogs beyond heap size, in memory-mapped files.
+ *
+ * <p>Snapshots are cheap to derive: appends write past the row count of every
+ * existing snapshot into shared storage, and deletes copy only the tombstone
+ * bitset. Only the latest snapshot may be derived from, which the catalog
+ * guarantees by serializing its writes. Readers never lock.
+ */
+public abstract class JobColumns {
+
+    static final int INITIAL_ROWS = 1024;
+
+    final int rowCount;
+    final int liveCount;
+    final String[] jobIds;
+    final long[] deleted;
+
+    JobColumns(int rowCount, int liveCount, String[] jobIds, long[] deleted) {
+        this.rowCount = rowCount;
+        this.liveCount = liveCount;
+        this.jobIds = jobIds;
+        this.deleted = deleted;
+    }
+
+    public static JobColumns empty() {
+        return HeapJobColumns.EMPTY;
+    }
+
+    /**
+     * An empty snapshot keeping its features off heap, in files under the given
+     * directory. Files left there by a previous run are overwritten.
+     */
+    public static JobColumns mapped(Path directory) {
+        return MappedJobColumns.create(directory);
+    }
+
+    /**
+     * Rows in this snapshot, including deleted ones; iterate up to this and skip
+     * rows that are not {@link #isLive(int) live}.
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public int liveCount() {
+        return liveCount;
+    }
+
+    public boolean isLive(int row) {
+        return (deleted[row >>> 6] & (1L << row)) == 0;
+    }
+
+    public String jobId(int row) {
+        return jobIds[row];
+    }
+
+    public abstract int locationId(int row);
+
+    public abstract int experienceLevel(int row);
+
+    public abstract int companyId(int row);
+
+    public abstract double salary(int row);
+
+    public abstract int skillCount(int row);
+
+    /**
+     * The row's {@code index}-th required skill id, in ascending order of ids.
+     */
+    public abstract int skillId(int row, int index);
+
+    /**
+     * Number of the row's required skills among the given sorted, de-duplicated ids.
+     */
+    public abstract int countCommonSkills(int[] skillIds, int row);
+
+    public abstract CompiledJobPosting toCompiled(int row);
+
+    /**
+     * Copies the features of rows {@code [from, to)}, deleted ones included, to
+     * the start of the block and sets its size; skill matches are left alone.
+     */
+    public void copyFeatures(int from, int to, JobBlock block) {
+        block.setSize(to - from);
+        for (int row = from; row < to; row++) {
+            block.getLocationIds()[row - from] = locationId(row);
+            block.getExperienceLevels()[row - from] = experienceLevel(row);
+            block.getSalaries()[row - from] = salary(row);
+            block.getCompanyIds()[row - from] = companyId(row);
+        }
+    }
+
+    JobColumns append(CompiledJobPosting job) {
+        String[] newJobIds = jobIds;
+        long[] newDeleted = deleted;
+        if (rowCount == jobIds.length) {
+            int capacity = Math.max(INITIAL_ROWS, rowCount * 2);
+            newJobIds = Arrays.copyOf(jobIds, capacity);
+            newDeleted = Arrays.copyOf(deleted, (capacity + 63) >>> 6);
+        }
+        // Everything written here lies past the row count of older snapshots, so they never see it
+        newJobIds[rowCount] = job.getJobId();
+        return appendFeatures(job, newJobIds, newDeleted);
+    }
+
+    /**
+     * Writes the job's features at row {@link #rowCount} and returns the snapshot
+     * holding one more live row.
+     */
+    abstract JobColumns appendFeatures(CompiledJobPosting job, String[] jobIds, long[] deleted);
+
+    JobColumns delete(int row) {
+        if (!isLive(row)) {
+            return this;
+        }
+        long[] newDeleted = deleted.clone();
+        newDeleted[row >>> 6] |= 1L << row;
+        return withDeleted(newDeleted, liveCount - 1);
+    }
+
+    abstract JobColumns withDeleted(long[] deleted, int liveCount);
+
+    /**
+     * Whether deleted rows take up enough of the snapshot to be worth rewriting it.
+     */
+    boolean needsCompaction() {
+        return rowCount >= INITIAL_ROWS && liveCount < rowCount / 2;
+    }
+
+    /**
+     * Copies the live rows into fresh storage; row numbers change, in the same order.
+     */
+    JobColumns compact() {
+        JobColumns compacted = emptyCopy();
+        for (int row = 0; row < rowCount; row++) {
+            if (isLive(row)) {
+                compacted = compacted.append(toCompiled(row));
+            }
+        }
+        return compacted;
+    }
+
+    /**
+     * An empty snapshot using the same kind of storage as this one, but not sharing it.
+     */
+    abstract JobColumns emptyCopy();
+}
@@ -0,0 +1,216 @@
+package com.jobrecommendation.recommendationservice.repository;
+
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link JobColumns} whose features live in memory-mapped files rather than on
+ * the heap, so the catalog scan neither adds to GC work nor needs the heap to
+ * grow with the catalog. Only the job ids and the tombstones stay on heap.
+ *
+ * <p>Each row is a fixed {@value #ROW_BYTES}-byte record in the rows file; the
+ * skill ids of all rows follow each other in the skills file, each row's
+ * ending where the next one's begins. Growing a file maps a larger region of
+ * it; older snapshots keep their smaller mapping of the same pages. Compaction
+ * starts a new generation of files and deletes the previous one, whose pages
+ * stay mapped until no snapshot references them.
+ */
+final class MappedJobColumns extends JobColumns {
+
+    private static final int ROW_BYTES = 24;
+    private static final int LOCATION_OFFSET = 0;
+    private static final int EXPERIENCE_OFFSET = 4;
+    private static final int COMPANY_OFFSET = 8;
+    private static final int SKILL_END_OFFSET = 12;
+    private static final int SALARY_OFFSET = 16;
+
+    private final Path directory;
+    private final long generation;
+    private final MappedByteBuffer rows;
+    private final MappedByteBuffer skills;
+
+    private MappedJobColumns(int rowCount, int liveCount, String[] jobIds, long[] deleted, Path directory,
+                             long generation, MappedByteBuffer rows, MappedByteBuffer skills) {
+        super(rowCount, liveCount, jobIds, deleted);
+        this.directory = directory;
+        this.generation = generation;
+        this.rows = rows;
+        this.skills = skills;
+    }
+
+    static MappedJobColumns create(Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create job feature directory " + directory, e);
+        }
+        return create(directory, 0);
+    }
+
+    private static MappedJobColumns create(Path directory, long generation) {
+        Path rowsFile = rowsFile(directory, generation);
+        Path skillsFile = skillsFile(directory, generation);
+        try {
+            Files.deleteIfExists(rowsFile);
+            Files.deleteIfExists(skillsFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot reset job feature files in " + directory, e);
+        }
+        return new MappedJobColumns(0, 0, new String[0], new long[0], directory, generation,
+                map(rowsFile, (long) INITIAL_ROWS * ROW_BYTES), map(skillsFile, (long) INITIAL_ROWS * Integer.BYTES));
+    }
+
+    @Override
+    public int locationId(int row) {
+        return rows.getInt(row * ROW_BYTES + LOCATION_OFFSET);
+    }
+
+    @Override
+    public int experienceLevel(int row) {
+        return rows.getInt(row * ROW_BYTES + EXPERIENCE_OFFSET);
+    }
+
+    @Override
+    public int companyId(int row) {
+        return rows.getInt(row * ROW_BYTES + COMPANY_OFFSET);
+    }
+
+    @Override
+    public double salary(int row) {
+        return rows.getDouble(row * ROW_BYTES + SALARY_OFFSET);
+    }
+
+    @Override
+    public int skillCount(int row) {
+        return skillEnd(row) - skillStart(row);
+    }
+
+    @Override
+    public int skillId(int row, int index) {
+        return skills.getInt((skillStart(row) + index) * Integer.BYTES);
+    }
+
+    @Override
+    public int countCommonSkills(int[] skillIds, int row) {
+        int i = 0;
+        int j = skillStart(row);
+        int end = skillEnd(row);
+        int common = 0;
+        while (i < skillIds.length && j < end) {
+            int skill = skills.getInt(j * Integer.BYTES);
+            if (skillIds[i] == skill) {
+                common++;
+                i++;
+                j++;
+            } else if (skillIds[i] < skill) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return common;
+    }
+
+    @Override
+    public CompiledJobPosting toCompiled(int row) {
+        int start = skillStart(row);
+        int[] requiredSkillIds = new int[skillEnd(row) - start];
+        for (int i = 0; i < requiredSkillIds.length; i++) {
+            requiredSkillIds[i] = skills.getInt((start + i) * Integer.BYTES);
+        }
+        return new CompiledJobPosting(jobIds[row], requiredSkillIds, locationId(row), experienceLevel(row),
+                salary(row), companyId(row));
+    }
+
+    @Override
+    JobColumns appendFeatures(CompiledJobPosting job, String[] newJobIds, long[] newDeleted) {
+        int row = rowCount;
+        int[] requiredSkillIds = job.getRequiredSkillIds();
+        int skillStart = skillStart(row);
+        int skillEnd = skillStart + requiredSkillIds.length;
+
+        MappedByteBuffer newRows = rows;
+        if ((long) (row + 1) * ROW_BYTES > rows.capacity()) {
+            newRows = map(rowsFile(directory, generation), grow(rows.capacity(), (long) (row + 1) * ROW_BYTES));
+        }
+        MappedByteBuffer newSkills = skills;
+        if ((long) skillEnd * Integer.BYTES > skills.capacity()) {
+            newSkills = map(skillsFile(directory, generation),
+                    grow(skills.capacity(), (long) skillEnd * Integer.BYTES));
+        }
+
+        int position = row * ROW_BYTES;
+        newRows.putInt(position + LOCATION_OFFSET, job.getLocationId());
+        newRows.putInt(position + EXPERIENCE_OFFSET, job.getExperienceLevel());
+        newRows.putInt(position + COMPANY_OFFSET, job.getCompanyId());
+        newRows.putInt(position + SKILL_END_OFFSET, skillEnd);
+        newRows.putDouble(position + SALARY_OFFSET, job.getSalary());
+        for (int i = 0; i < requiredSkillIds.length; i++) {
+            newSkills.putInt((skillStart + i) * Integer.BYTES, requiredSkillIds[i]);
+        }
+        return new MappedJobColumns(row + 1, liveCount + 1, newJobIds, newDeleted, directory, generation, newRows,
+                newSkills);
+    }
+
+    @Override
+    JobColumns withDeleted(long[] newDeleted, int newLiveCount) {
+        return new MappedJobColumns(rowCount, newLiveCount, jobIds, newDeleted, directory, generation, rows, skills);
+    }
+
+    @Override
+    JobColumns emptyCopy() {
+        MappedJobColumns next = create(directory, generation + 1);
+        try {
+            // Snapshots still reading this generation keep their mappings; only the names go away
+            Files.deleteIfExists(rowsFile(directory, generation));
+            Files.deleteIfExists(skillsFile(directory, generation));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete job feature files in " + directory, e);
+        }
+        return next;
+    }
+
+    private int skillStart(int row) {
+        return row == 0 ? 0 : skillEnd(row - 1);
+    }
+
+    private int skillEnd(int row) {
+        return rows.getInt(row * ROW_BYTES + SKILL_END_OFFSET);
+    }
+
+    private static long grow(long capacity, long required) {
+        long grown = Math.max(required, capacity * 2);
+        if (required > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Job feature file would exceed " + Integer.MAX_VALUE + " bytes");
+        }
+        return Math.min(grown, Integer.MAX_VALUE);
+    }
+
+    private static MappedByteBuffer map(Path file, long bytes) {
+        // The mapping stays valid once the channel is closed
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buffer.order(ByteOrder.nativeOrder());
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map job feature file " + file, e);
+        }
+    }
+
+    private static Path rowsFile(Path directory, long generation) {
+        return directory.resolve("job-features-" + generation + ".rows");
+    }
+
+    private static Path skillsFile(Path directory, long generation) {
+        return directory.resolve("job-features-" + generation + ".skills");
+    }
+}
@@ -0,0 +1,183 @@
+package com.jobrecommendation.recommendationservice.repository;
+
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.StateSnapshot;
+import com.jobrecommendation.recommendationservice.model.UserProfile;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads and writes the {@link StateSnapshot} file. The format is a compact
+ * binary one: jobs are stored in their compiled form, as dictionary ids, next
+ * to the dictionaries themselves. A snapshot is written to a temporary file
+ * first and moved into place, so a crash never leaves a partial one behind.
+ */
+@Repository
+public class StateSnapshotStore {
+
+    private static final int MAGIC = 0x52534e50;
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path path;
+
+    public StateSnapshotStore(@Value("${app.snapshot.path:data/state.snapshot}") Path path) {
+        this.path = path;
+    }
+
+    public Optional<StateSnapshot> read() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a state snapshot of this version: " + path);
+            }
+            Map<TopicPartition, Long> offsets = new HashMap<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                offsets.put(new TopicPartition(in.readUTF(), in.readInt()), in.readLong());
+            }
+            List<String> skillTerms = readStrings(in);
+            List<String> locationTerms = readStrings(in);
+            List<String> companyTerms = readStrings(in);
+            int jobCount = in.readInt();
+            List<CompiledJobPosting> jobs = new ArrayList<>(jobCount);
+            for (int i = 0; i < jobCount; i++) {
+                jobs.add(readJob(in));
+            }
+            int profileCount = in.readInt();
+            List<UserProfile> profiles = new ArrayList<>(profileCount);
+            for (int i = 0; i < profileCount; i++) {
+                profiles.add(readProfile(in));
+            }
+            return Optional.of(new StateSnapshot(offsets, skillTerms, locationTerms, companyTerms, jobs, profiles));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    public void write(StateSnapshot snapshot) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(snapshot.getOffsets().size());
+                for (Map.Entry<TopicPartition, Long> offset : snapshot.getOffsets().entrySet()) {
+                    out.writeUTF(offset.getKey().topic());
+                    out.writeInt(offset.getKey().partition());
+                    out.writeLong(offset.getValue());
+                }
+                writeStrings(out, snapshot.getSkillTerms());
+                writeStrings(out, snapshot.getLocationTerms());
+                writeStrings(out, snapshot.getCompanyTerms());
+                out.writeInt(snapshot.getJobs().size());
+                for (CompiledJobPosting job : snapshot.getJobs()) {
+                    writeJob(out, job);
+                }
+                out.writeInt(snapshot.getProfiles().size());
+                for (UserProfile profile : snapshot.getProfiles()) {
+                    writeProfile(out, profile);
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static CompiledJobPosting readJob(DataInputStream in) throws IOException {
+        String jobId = in.readUTF();
+        int[] requiredSkillIds = new int[in.readInt()];
+        for (int i = 0; i < requiredSkillIds.length; i++) {
+            requiredSkillIds[i] = in.readInt();
+        }
+        return new CompiledJobPosting(jobId, requiredSkillIds, in.readInt(), in.readInt(), in.readDouble(),
+                in.readInt());
+    }
+
+    private static void writeJob(DataOutputStream out, CompiledJobPosting job) throws IOException {
+        out.writeUTF(job.getJobId());
+        out.writeInt(job.getRequiredSkillIds().length);
+        for (int skillId : job.getRequiredSkillIds()) {
+            out.writeInt(skillId);
+        }
+        out.writeInt(job.getLocationId());
+        out.writeInt(job.getExperienceLevel());
+        out.writeDouble(job.getSalary());
+        out.writeInt(job.getCompanyId());
+    }
+
+    private static UserProfile readProfile(DataInputStream in) throws IOException {
+        UserProfile profile = new UserProfile();
+        profile.setId(readString(in));
+        profile.setSkills(readStrings(in));
+        profile.setPreferredLocation(readString(in));
+        profile.setExperienceLevel(readString(in));
+        profile.setPreferredCompanies(readStrings(in));
+        profile.setExpectedSalary(in.readBoolean() ? in.readDouble() : null);
+        profile.setPreferredEmploymentType(readString(in));
+        return profile;
+    }
+
+    private static void writeProfile(DataOutputStream out, UserProfile profile) throws IOException {
+        writeString(out, profile.getId());
+        writeStrings(out, profile.getSkills());
+        writeString(out, profile.getPreferredLocation());
+        writeString(out, profile.getExperienceLevel());
+        writeStrings(out, profile.getPreferredCompanies());
+        out.writeBoolean(profile.getExpectedSalary() != null);
+        if (profile.getExpectedSalary() != null) {
+            out.writeDouble(profile.getExpectedSalary());
+        }
+        writeString(out, profile.getPreferredEmploymentType());
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(readString(in));
+        }
+        return strings;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+        if (strings == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(strings.size());
+        for (String string : strings) {
+            writeString(out, string);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        out.writeBoolean(string != null);
+        if (string != null) {
+            out.writeUTF(string);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.jobrecommendation.recommendationservice.repository;
+
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.UserProfile;
+import com.jobrecommendation.recommendationservice.service.FeatureEncoder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Local replica of user profiles keyed by user id, kept up to date from the
+ * {@code user-profiles} topic. Profiles are compiled into their scoring form
+ * once, at ingest.
+ */
+@Repository
+@Slf4j
+@RequiredArgsConstructor
+public class UserProfileStore {
+
+    private final FeatureEncoder featureEncoder;
+    private final ConcurrentMap<String, UserProfile> profiles = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompiledUserProfile> compiledProfiles = new ConcurrentHashMap<>();
+    private volatile boolean initialized;
+
+    public void upsert(UserProfile userProfile) {
+        if (userProfile == null || userProfile.getId() == null) {
+            return;
+        }
+        compiledProfiles.put(userProfile.getId(), featureEncoder.compile(userProfile));
+        profiles.put(userProfile.getId(), userProfile);
+    }
+
+    /**
+     * Seeds the store with a full listing. Profiles already received from the
+     * event stream are newer than the listing, so they are kept as they are.
+     */
+    public void loadAll(Collection<UserProfile> userProfiles) {
+        for (UserProfile userProfile : userProfiles) {
+            if (userProfile != null && userProfile.getId() != null
+                    && !profiles.containsKey(userProfile.getId())) {
+                compiledProfiles.putIfAbsent(userProfile.getId(), featureEncoder.compile(userProfile));
+                profiles.putIfAbsent(userProfile.getId(), userProfile);
+            }
+        }
+        initialized = true;
+        log.info("User profile store initialized with {} profiles", profiles.size());
+    }
+
+    public Optional<UserProfile> findById(String userId) {
+        return Optional.ofNullable(profiles.get(userId));
+    }
+
+    public Optional<CompiledUserProfile> findCompiledById(String userId) {
+        return Optional.ofNullable(compiledProfiles.get(userId));
+    }
+
+    public List<UserProfile> findAll() {
+        return new ArrayList<>(profiles.values());
+    }
+
+    public List<CompiledUserProfile> findAllCompiled() {
+        return new ArrayList<>(compiledProfiles.values());
+    }
+
+    public int size() {
+        return profiles.size();
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+}
@@ -0,0 +1,185 @@
+package com.jobrecommendation.recommendationservice.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.UserRecommendations;
+import com.jobrecommendation.recommendationservice.service.RecommendationEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Stored per-user rankings plus the candidate indexes used to find which of
+ * them a job event can affect: users sharing a skill with the job, users
+ * already holding the job, and users whose floor is low enough that a job
+ * sharing no skill at all could still enter their list.
+ *
+ * <p>The store is a bounded cache: entries are evicted by size and by age, and
+ * hit/miss/eviction statistics are published as the {@code recommendations}
+ * cache metrics. Entries whose full ranking is older than the refresh interval
+ * are still served, but should be recomputed in the background.
+ */
+@Repository
+public class UserRecommendationStore {
+
+    private final int storedSize;
+    private final long refreshAfterNanos;
+    private final Cache<String, UserRecommendations> cache;
+    private final ConcurrentMap<String, UserRecommendations> recommendations;
+    private final ConcurrentMap<Integer, Set<String>> usersBySkill = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> usersByJob = new ConcurrentHashMap<>();
+    private final Set<String> lowFloorUsers = ConcurrentHashMap.newKeySet();
+
+    public UserRecommendationStore(@Value("${app.recommendations.stored-size:50}") int storedSize,
+                                   @Value("${app.recommendations.cache.maximum-size:100000}") long maximumSize,
+                                   @Value("${app.recommendations.cache.expire-after-write:30m}") Duration expireAfterWrite,
+                                   @Value("${app.recommendations.cache.refresh-after:5m}") Duration refreshAfter,
+                                   MeterRegistry meterRegistry) {
+        this.storedSize = storedSize;
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                // Evictions run on the writing thread so the indexes never point at evicted users for long
+                .executor(Runnable::run)
+                .evictionListener((String userId, UserRecommendations evicted, RemovalCause cause) -> unindex(evicted))
+                .recordStats()
+                .build();
+        this.recommendations = cache.asMap();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "recommendations");
+    }
+
+    /**
+     * Number of recommendations kept per user, so reads up to this limit are lookups.
+     */
+    public int getStoredSize() {
+        return storedSize;
+    }
+
+    public Optional<UserRecommendations> findByUserId(String userId) {
+        return Optional.ofNullable(cache.getIfPresent(userId));
+    }
+
+    /**
+     * Whether an entry's full ranking is old enough that it should be recomputed.
+     */
+    public boolean needsRefresh(UserRecommendations userRecommendations) {
+        return System.nanoTime() - userRecommendations.getRankedAt() >= refreshAfterNanos;
+    }
+
+    public void save(UserRecommendations userRecommendations) {
+        String userId = userRecommendations.getUserId();
+        recommendations.compute(userId, (id, previous) -> {
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(userRecommendations);
+            return userRecommendations;
+        });
+    }
+
+    public void invalidate(String userId) {
+        recommendations.computeIfPresent(userId, (id, previous) -> {
+            unindex(previous);
+            return null;
+        });
+    }
+
+    /**
+     * Atomically patches a user's stored ranking, if there is one.
+     */
+    public void update(String userId, UnaryOperator<UserRecommendations> patch) {
+        recommendations.computeIfPresent(userId, (id, previous) -> {
+            UserRecommendations patched = patch.apply(previous);
+            if (patched != previous) {
+                reindexJobs(previous, patched);
+            }
+            return patched;
+        });
+    }
+
+    /**
+     * Users whose stored ranking may change because of an upserted job.
+     */
+    public Set<String> findAffectedUsers(CompiledJobPosting jobPosting) {
+        Set<String> affected = new HashSet<>(lowFloorUsers);
+        affected.addAll(findUsersHoldingJob(jobPosting.getJobId()));
+        for (int skillId : jobPosting.getRequiredSkillIds()) {
+            Set<String> users = usersBySkill.get(skillId);
+            if (users != null) {
+                affected.addAll(users);
+            }
+        }
+        return affected;
+    }
+
+    public Set<String> findUsersHoldingJob(String jobId) {
+        Set<String> users = usersByJob.get(jobId);
+        return users == null ? Set.of() : new HashSet<>(users);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private void index(UserRecommendations entry) {
+        String userId = entry.getUserId();
+        for (int skillId : entry.getUser().getSkillIds()) {
+            usersBySkill.computeIfAbsent(skillId, key -> ConcurrentHashMap.newKeySet()).add(userId);
+        }
+        for (String jobId : entry.getJobIds()) {
+            usersByJob.computeIfAbsent(jobId, key -> ConcurrentHashMap.newKeySet()).add(userId);
+        }
+        updateFloorIndex(entry);
+    }
+
+    private void unindex(UserRecommendations entry) {
+        String userId = entry.getUserId();
+        for (int skillId : entry.getUser().getSkillIds()) {
+            removeFromIndex(usersBySkill, skillId, userId);
+        }
+        for (String jobId : entry.getJobIds()) {
+            removeFromIndex(usersByJob, jobId, userId);
+        }
+        lowFloorUsers.remove(userId);
+    }
+
+    private void reindexJobs(UserRecommendations previous, UserRecommendations patched) {
+        String userId = patched.getUserId();
+        for (String jobId : previous.getJobIds()) {
+            if (!patched.contains(jobId)) {
+                removeFromIndex(usersByJob, jobId, userId);
+            }
+        }
+        for (String jobId : patched.getJobIds()) {
+            usersByJob.computeIfAbsent(jobId, key -> ConcurrentHashMap.newKeySet()).add(userId);
+        }
+        updateFloorIndex(patched);
+    }
+
+    private void updateFloorIndex(UserRecommendations entry) {
+        if (entry.getFloor() <= RecommendationEngine.MAX_SCORE_WITHOUT_SKILL_MATCH) {
+            lowFloorUsers.add(entry.getUserId());
+        } else {
+            lowFloorUsers.remove(entry.getUserId());
+        }
+    }
+
+    private static <K> void removeFromIndex(ConcurrentMap<K, Set<String>> index, K key, String userId) {
+        index.computeIfPresent(key, (k, users) -> {
+            users.remove(userId);
+            return users.isEmpty() ? null : users;
+        });
+    }
+}
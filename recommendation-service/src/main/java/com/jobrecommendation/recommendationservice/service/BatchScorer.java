@@ -0,0 +1,40 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.JobBlock;
+
+/**
+ * Scores one user against a block of jobs. Every score equals the one
+ * {@link RecommendationEngine} computes for the same user and job, given the
+ * block's precomputed skill matches.
+ */
+public interface BatchScorer {
+
+    /**
+     * Writes the score of each of the block's rows to {@code scores}, from index 0.
+     */
+    void score(CompiledUserProfile user, JobBlock block, double[] scores);
+
+    static BatchScorer scalar() {
+        return ScalarBatchScorer.INSTANCE;
+    }
+
+    /**
+     * The SIMD scorer when the JVM was started with
+     * {@code --add-modules jdk.incubator.vector}, the scalar one otherwise.
+     */
+    static BatchScorer best() {
+        if (isVectorAvailable()) {
+            try {
+                return VectorBatchScorer.INSTANCE;
+            } catch (LinkageError e) {
+                // No usable vector shape on this platform
+            }
+        }
+        return scalar();
+    }
+
+    static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+}
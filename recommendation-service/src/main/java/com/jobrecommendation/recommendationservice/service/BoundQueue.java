@@ -0,0 +1,65 @@
+package com.jobrecommendation.recommendationservice.service;
+
+/**
+ * Max-heap of candidate indices by their score bound. It is built in linear
+ * time and only orders the candidates that are actually taken, so when
+ * pruning stops early, most candidates are never sorted.
+ */
+final class BoundQueue {
+
+    private final int[] heap;
+    private final double[] bounds;
+    private int size;
+
+    /**
+     * @param indices candidates to order; the array is taken over
+     * @param size    number of candidates at the start of {@code indices}
+     * @param bounds  bound of each candidate, by index
+     */
+    BoundQueue(int[] indices, int size, double[] bounds) {
+        this.heap = indices;
+        this.size = size;
+        this.bounds = bounds;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Candidate with the highest bound.
+     */
+    int peek() {
+        return heap[0];
+    }
+
+    int poll() {
+        int top = heap[0];
+        heap[0] = heap[--size];
+        siftDown(0);
+        return top;
+    }
+
+    private void siftDown(int position) {
+        int index = heap[position];
+        double bound = bounds[index];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && bounds[heap[child + 1]] > bounds[heap[child]]) {
+                child++;
+            }
+            if (bounds[heap[child]] <= bound) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = index;
+    }
+}
@@ -0,0 +1,418 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.UserRecommendations;
+import com.jobrecommendation.recommendationservice.repository.JobCatalog;
+import com.jobrecommendation.recommendationservice.repository.JobColumns;
+import com.jobrecommendation.recommendationservice.repository.UserProfileStore;
+import com.jobrecommendation.recommendationservice.repository.UserRecommendationStore;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
+import org.nd4j.linalg.api.memory.enums.LearningPolicy;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.BooleanIndexing;
+import org.nd4j.linalg.indexing.conditions.Conditions;
+import org.nd4j.linalg.ops.transforms.Transforms;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.jobrecommendation.recommendationservice.service.RecommendationEngine.COMPANY_WEIGHT;
+import static com.jobrecommendation.recommendationservice.service.RecommendationEngine.EXPERIENCE_WEIGHT;
+import static com.jobrecommendation.recommendationservice.service.RecommendationEngine.LOCATION_WEIGHT;
+import static com.jobrecommendation.recommendationservice.service.RecommendationEngine.SALARY_WEIGHT;
+import static com.jobrecommendation.recommendationservice.service.RecommendationEngine.SKILLS_WEIGHT;
+
+/**
+ * Recomputes every stored ranking in one pass, for the nightly full refresh.
+ * Users and jobs are taken in tiles and encoded as 0/1 feature matrices, so
+ * the skill, location, experience and company matches of a whole tile come
+ * out of matrix products; the salary match and the weighted sum are then
+ * element-wise over the tile, and each user keeps its top-K across job tiles.
+ * The products only count small integers, so scores equal the scalar ones.
+ *
+ * <p>Rankings come from one catalog snapshot. Jobs that changed while the pass
+ * ran are patched into each ranking before it is stored, the same way job
+ * events patch stored rankings.
+ *
+ * <p>The nightly pass runs as {@link WorkPriority#BULK} work, behind
+ * interactive reads and job events, and keeps the scheduler thread free for
+ * the other scheduled tasks.
+ */
+@Component
+@Slf4j
+public class BulkRanker {
+
+    private static final int EXPERIENCE_LEVELS = 4;
+    private static final WorkspaceConfiguration TILE_WORKSPACE = WorkspaceConfiguration.builder()
+            .policyAllocation(AllocationPolicy.OVERALLOCATE)
+            .policyLearning(LearningPolicy.FIRST_LOOP)
+            .build();
+
+    private final RecommendationEngine recommendationEngine;
+    private final JobCatalog jobCatalog;
+    private final UserProfileStore userProfileStore;
+    private final UserRecommendationStore userRecommendationStore;
+    private final WorkScheduler workScheduler;
+    private final int userTileSize;
+    private final int jobTileSize;
+
+    public BulkRanker(RecommendationEngine recommendationEngine, JobCatalog jobCatalog,
+                      UserProfileStore userProfileStore, UserRecommendationStore userRecommendationStore,
+                      WorkScheduler workScheduler,
+                      @Value("${app.recommendations.bulk.user-tile:32}") int userTileSize,
+                      @Value("${app.recommendations.bulk.job-tile:4096}") int jobTileSize) {
+        this.recommendationEngine = recommendationEngine;
+        this.jobCatalog = jobCatalog;
+        this.userProfileStore = userProfileStore;
+        this.userRecommendationStore = userRecommendationStore;
+        this.workScheduler = workScheduler;
+        this.userTileSize = userTileSize;
+        this.jobTileSize = jobTileSize;
+    }
+
+    @Scheduled(cron = "${app.recommendations.bulk.cron:0 0 3 * * *}")
+    public void scheduledRecomputation() {
+        if (!jobCatalog.isInitialized() || !userProfileStore.isInitialized()) {
+            log.info("Skipping bulk ranking, catalog or profiles not loaded yet");
+            return;
+        }
+        try {
+            submitRecomputation().whenComplete((rankings, e) -> {
+                if (e != null) {
+                    log.error("Bulk ranking failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Skipping bulk ranking, bulk work queue is full");
+        }
+    }
+
+    /**
+     * Queues {@link #recomputeAll()} as bulk work.
+     *
+     * @throws RejectedExecutionException when the bulk lane is full
+     */
+    CompletableFuture<Integer> submitRecomputation() {
+        return workScheduler.submit(WorkPriority.BULK, this::recomputeAll);
+    }
+
+    /**
+     * Ranks the catalog for every known user and stores the rankings.
+     *
+     * @return number of rankings stored
+     */
+    public int recomputeAll() {
+        long start = System.nanoTime();
+        JobColumns jobs = jobCatalog.snapshot();
+        List<CompiledUserProfile> users = userProfileStore.findAllCompiled();
+        recompute(jobs, users);
+        log.info("Ranked {} jobs for {} users in {} ms", jobs.liveCount(), users.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return users.size();
+    }
+
+    void recompute(JobColumns jobs, List<CompiledUserProfile> users) {
+        int capacity = userRecommendationStore.getStoredSize();
+        int[] rows = liveRows(jobs);
+        Map<String, Integer> rankedRows = new HashMap<>();
+        for (int row : rows) {
+            rankedRows.put(jobs.jobId(row), row);
+        }
+        long version = jobCatalog.getVersion();
+        Map<String, CompiledJobPosting> changes = changesSince(jobs, rankedRows);
+
+        for (int from = 0; from < users.size(); from += userTileSize) {
+            List<CompiledUserProfile> userTile = users.subList(from, Math.min(users.size(), from + userTileSize));
+            TopKSelector[] selections = rankTile(userTile, jobs, rows, capacity);
+            for (int i = 0; i < userTile.size(); i++) {
+                if (jobCatalog.getVersion() != version) {
+                    version = jobCatalog.getVersion();
+                    changes = changesSince(jobs, rankedRows);
+                }
+                CompiledUserProfile user = userTile.get(i);
+                userRecommendationStore.save(patch(toRecommendations(user, selections[i], jobs, capacity,
+                        rows.length <= capacity), changes));
+                // A job event may have patched the entry just before it was replaced
+                if (jobCatalog.getVersion() != version) {
+                    userRecommendationStore.invalidate(user.getUserId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Selects each user's best jobs of the given rows, one job tile at a time.
+     */
+    TopKSelector[] rankTile(List<CompiledUserProfile> users, JobColumns jobs, int[] rows, int capacity) {
+        TopKSelector[] selections = new TopKSelector[users.size()];
+        for (int i = 0; i < selections.length; i++) {
+            selections[i] = new TopKSelector(capacity, (a, b) -> jobs.jobId(a).compareTo(jobs.jobId(b)));
+        }
+        UserTile userTile = new UserTile(users);
+        for (int from = 0; from < rows.length; from += jobTileSize) {
+            int to = Math.min(rows.length, from + jobTileSize);
+            double[] scores;
+            try (MemoryWorkspace ignored = Nd4j.getWorkspaceManager()
+                    .getAndActivateWorkspace(TILE_WORKSPACE, "bulk-ranking")) {
+                scores = userTile.score(jobs, rows, from, to).data().asDouble();
+            }
+            int width = to - from;
+            for (int i = 0; i < selections.length; i++) {
+                for (int j = 0; j < width; j++) {
+                    selections[i].offer(rows[from + j], scores[i * width + j]);
+                }
+            }
+        }
+        return selections;
+    }
+
+    private UserRecommendations toRecommendations(CompiledUserProfile user, TopKSelector selection, JobColumns jobs,
+                                                  int capacity, boolean exhaustive) {
+        int[] selected = selection.sortedIndices();
+        String[] jobIds = new String[selected.length];
+        double[] scores = new double[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+            jobIds[i] = jobs.jobId(selected[i]);
+            scores[i] = recommendationEngine.calculateMatchScore(user, jobs, selected[i]);
+        }
+        return UserRecommendations.of(user, jobIds, scores, capacity, exhaustive);
+    }
+
+    private UserRecommendations patch(UserRecommendations ranking, Map<String, CompiledJobPosting> changes) {
+        for (Map.Entry<String, CompiledJobPosting> change : changes.entrySet()) {
+            ranking = change.getValue() == null
+                    ? ranking.withoutJob(change.getKey())
+                    : ranking.withScore(change.getKey(),
+                            recommendationEngine.calculateMatchScore(ranking.getUser(), change.getValue()));
+        }
+        return ranking;
+    }
+
+    /**
+     * Jobs of the current catalog that differ from the ranked snapshot: removed
+     * jobs map to null, added and updated ones to their current form.
+     */
+    private Map<String, CompiledJobPosting> changesSince(JobColumns ranked, Map<String, Integer> rankedRows) {
+        JobColumns current = jobCatalog.snapshot();
+        if (current == ranked) {
+            return Map.of();
+        }
+        Map<String, CompiledJobPosting> changes = new HashMap<>();
+        Set<String> present = new HashSet<>();
+        for (int row : liveRows(current)) {
+            CompiledJobPosting job = current.toCompiled(row);
+            present.add(job.getJobId());
+            Integer rankedRow = rankedRows.get(job.getJobId());
+            if (rankedRow == null || !job.equals(ranked.toCompiled(rankedRow))) {
+                changes.put(job.getJobId(), job);
+            }
+        }
+        for (String jobId : rankedRows.keySet()) {
+            if (!present.contains(jobId)) {
+                changes.put(jobId, null);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Scores of a tile of users (rows) against a tile of jobs (columns), given
+     * each factor's matches as a matrix of that shape. Weighted and summed in
+     * the same order as the scalar scoring methods, so every entry equals the
+     * score of its pair. The factor matrices are overwritten.
+     */
+    private static INDArray calculateMatchScores(INDArray skillMatch, INDArray locationMatch, INDArray experienceMatch,
+                                                 INDArray salaryMatch, INDArray companyMatch) {
+        return skillMatch.muli(SKILLS_WEIGHT)
+                .addi(locationMatch.muli(LOCATION_WEIGHT))
+                .addi(experienceMatch.muli(EXPERIENCE_WEIGHT))
+                .addi(salaryMatch.muli(SALARY_WEIGHT))
+                .addi(companyMatch.muli(COMPANY_WEIGHT));
+    }
+
+    /**
+     * Salary matches of every expected salary (column vector, NaN when missing)
+     * against every offered one (row vector), element for element equal to the
+     * scalar salary match.
+     */
+    private static INDArray calculateSalaryMatches(INDArray expectedSalaries, INDArray offeredSalaries) {
+        INDArray offered = Nd4j.zeros(DataType.DOUBLE, expectedSalaries.length(), offeredSalaries.length())
+                .addiRowVector(offeredSalaries);
+        // NaN compares as false, like the scalar comparison
+        INDArray fullyMet = offered.subColumnVector(expectedSalaries).gte(0.0).castTo(DataType.DOUBLE);
+        INDArray ratio = offered.diviColumnVector(expectedSalaries);
+        BooleanIndexing.replaceWhere(ratio, 0.0, Conditions.isNan());
+        return Transforms.max(fullyMet, Transforms.min(Transforms.max(ratio, 0.0, false), 1.0, false), false);
+    }
+
+    private static int[] liveRows(JobColumns jobs) {
+        int[] rows = new int[jobs.liveCount()];
+        int count = 0;
+        for (int row = 0; row < jobs.rowCount() && count < rows.length; row++) {
+            if (jobs.isLive(row)) {
+                rows[count++] = row;
+            }
+        }
+        return count == rows.length ? rows : Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * A tile of users as one-hot feature matrices. Only the skills, locations and
+     * companies these users have get a column, which keeps the products small.
+     */
+    private final class UserTile {
+
+        private final int size;
+        private final int[] skillColumns;
+        private final int[] locationColumns;
+        private final int[] companyColumns;
+        private final INDArray skills;
+        private final INDArray locations;
+        private final INDArray experience;
+        private final INDArray companies;
+        private final INDArray expectedSalaries;
+
+        UserTile(List<CompiledUserProfile> users) {
+            size = users.size();
+            int maxSkillId = -1;
+            int maxLocationId = -1;
+            int maxCompanyId = -1;
+            for (CompiledUserProfile user : users) {
+                for (int skillId : user.getSkillIds()) {
+                    maxSkillId = Math.max(maxSkillId, skillId);
+                }
+                maxLocationId = Math.max(maxLocationId, user.getLocationId());
+                for (int companyId : user.getPreferredCompanyIds()) {
+                    maxCompanyId = Math.max(maxCompanyId, companyId);
+                }
+            }
+            skillColumns = newColumnIndex(maxSkillId);
+            locationColumns = newColumnIndex(maxLocationId);
+            companyColumns = newColumnIndex(maxCompanyId);
+            int skillCount = 0;
+            int locationCount = 0;
+            int companyCount = 0;
+            for (CompiledUserProfile user : users) {
+                for (int skillId : user.getSkillIds()) {
+                    skillCount = assignColumn(skillColumns, skillId, skillCount);
+                }
+                locationCount = assignColumn(locationColumns, user.getLocationId(), locationCount);
+                for (int companyId : user.getPreferredCompanyIds()) {
+                    companyCount = assignColumn(companyColumns, companyId, companyCount);
+                }
+            }
+
+            // At least one column each, so products stay well-formed for tiles without any
+            skills = Nd4j.zeros(DataType.FLOAT, size, Math.max(1, skillCount));
+            locations = Nd4j.zeros(DataType.DOUBLE, size, Math.max(1, locationCount));
+            experience = Nd4j.zeros(DataType.DOUBLE, size, EXPERIENCE_LEVELS);
+            companies = Nd4j.zeros(DataType.DOUBLE, size, Math.max(1, companyCount));
+            double[] salaries = new double[size];
+            for (int i = 0; i < size; i++) {
+                CompiledUserProfile user = users.get(i);
+                for (int skillId : user.getSkillIds()) {
+                    set(skills, i, skillColumns[skillId]);
+                }
+                if (user.getLocationId() >= 0) {
+                    set(locations, i, locationColumns[user.getLocationId()]);
+                }
+                // Unknown level (0) matches nothing, so it keeps an all-zero row
+                if (user.getExperienceLevel() > 0) {
+                    set(experience, i, user.getExperienceLevel());
+                }
+                for (int companyId : user.getPreferredCompanyIds()) {
+                    set(companies, i, companyColumns[companyId]);
+                }
+                salaries[i] = user.getExpectedSalary();
+            }
+            expectedSalaries = Nd4j.create(salaries, new long[]{size, 1}, DataType.DOUBLE);
+        }
+
+        /**
+         * Scores of these users against {@code rows[from, to)}, as a row-major users × jobs matrix.
+         */
+        INDArray score(JobColumns jobs, int[] rows, int from, int to) {
+            int width = to - from;
+            // Mostly zeros, so only the ones are written
+            INDArray jobSkills = Nd4j.zeros(DataType.FLOAT, skills.columns(), width);
+            INDArray jobLocations = Nd4j.zeros(DataType.DOUBLE, locations.columns(), width);
+            INDArray jobExperience = Nd4j.zeros(DataType.DOUBLE, EXPERIENCE_LEVELS, width);
+            INDArray jobCompanies = Nd4j.zeros(DataType.DOUBLE, companies.columns(), width);
+            double[] requiredSkillCounts = new double[width];
+            double[] offeredSalaries = new double[width];
+            for (int j = 0; j < width; j++) {
+                int row = rows[from + j];
+                int skillCount = jobs.skillCount(row);
+                for (int k = 0; k < skillCount; k++) {
+                    int column = columnOf(skillColumns, jobs.skillId(row, k));
+                    if (column >= 0) {
+                        set(jobSkills, column, j);
+                    }
+                }
+                // A job without skills matches none; dividing its zero overlap by one keeps it at 0
+                requiredSkillCounts[j] = Math.max(1, skillCount);
+                int locationColumn = columnOf(locationColumns, jobs.locationId(row));
+                if (locationColumn >= 0) {
+                    set(jobLocations, locationColumn, j);
+                }
+                int requiredLevel = jobs.experienceLevel(row);
+                for (int level = Math.max(1, requiredLevel); requiredLevel > 0 && level < EXPERIENCE_LEVELS; level++) {
+                    set(jobExperience, level, j);
+                }
+                int companyColumn = columnOf(companyColumns, jobs.companyId(row));
+                if (companyColumn >= 0) {
+                    set(jobCompanies, companyColumn, j);
+                }
+                offeredSalaries[j] = jobs.salary(row);
+            }
+
+            INDArray skillMatch = skills.mmul(jobSkills).castTo(DataType.DOUBLE)
+                    .diviRowVector(Nd4j.create(requiredSkillCounts, new long[]{1, width}, DataType.DOUBLE));
+            INDArray locationMatch = locations.mmul(jobLocations);
+            INDArray experienceMatch = experience.mmul(jobExperience);
+            INDArray salaryMatch = calculateSalaryMatches(expectedSalaries,
+                    Nd4j.create(offeredSalaries, new long[]{1, width}, DataType.DOUBLE));
+            // 1.0 for a preferred company, 0.5 otherwise or without preferences
+            INDArray companyMatch = companies.mmul(jobCompanies).muli(0.5).addi(0.5);
+            return calculateMatchScores(skillMatch, locationMatch, experienceMatch, salaryMatch, companyMatch);
+        }
+
+        private static int[] newColumnIndex(int maxId) {
+            int[] columns = new int[maxId + 1];
+            Arrays.fill(columns, -1);
+            return columns;
+        }
+
+        private static int assignColumn(int[] columns, int id, int count) {
+            if (id < 0 || columns[id] >= 0) {
+                return count;
+            }
+            columns[id] = count;
+            return count + 1;
+        }
+
+        private static int columnOf(int[] columns, int id) {
+            return id >= 0 && id < columns.length ? columns[id] : -1;
+        }
+
+        /** Writes a one straight into the buffer of a row-major matrix. */
+        private static void set(INDArray matrix, long row, long column) {
+            matrix.data().put(row * matrix.columns() + column, 1.0);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import java.time.Duration;
+
+/**
+ * Point in time, on the {@link System#nanoTime()} clock, by which a ranking
+ * should return whatever it has found so far.
+ */
+public final class Deadline {
+
+    public static final Deadline NONE = new Deadline(0, false);
+
+    private final long nanoTime;
+    private final boolean bounded;
+
+    private Deadline(long nanoTime, boolean bounded) {
+        this.nanoTime = nanoTime;
+        this.bounded = bounded;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos(), true);
+    }
+
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - nanoTime >= 0;
+    }
+}
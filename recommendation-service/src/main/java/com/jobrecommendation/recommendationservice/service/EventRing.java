@@ -0,0 +1,297 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Hands events from the threads receiving them to a fixed set of workers,
+ * through a ring of slots allocated once up front. Every worker reads every
+ * slot but handles only the events whose key hashes to it, so events with the
+ * same key are handled one at a time in publishing order, while different keys
+ * are handled in parallel. A slot is reused once every worker has moved past it;
+ * its event is released as soon as it has been handled.
+ *
+ * <p>When the ring is three quarters full, {@link Backpressure#pause()} asks the
+ * source to stop delivering; once workers have drained it to a quarter, it is
+ * resumed. Publishing into a full ring waits for a free slot. With no workers,
+ * events are handled on the publishing thread.
+ *
+ * <p>{@code recommendation.events.ring.depth} gauges the published events not
+ * yet passed by every worker, {@code recommendation.events.ring.latency} times
+ * publishing to the end of handling, and {@code recommendation.events.ring.pauses}
+ * counts pauses, all tagged with the ring's name.
+ */
+@Slf4j
+public class EventRing<T> {
+
+    /** Stops and resumes the source of the events. */
+    public interface Backpressure {
+
+        Backpressure NONE = new Backpressure() {
+            @Override
+            public void pause() {
+            }
+
+            @Override
+            public void resume() {
+            }
+        };
+
+        void pause();
+
+        void resume();
+    }
+
+    private static final int SPINS = 100;
+    private static final long FULL_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Slot<T>[] slots;
+    private final int mask;
+    private final List<Worker> workers;
+    private final Function<? super T, ?> key;
+    private final Consumer<? super T> handler;
+    private final Backpressure backpressure;
+    private final int pauseAt;
+    private final int resumeAt;
+    private final Timer latency;
+    private final Counter pauses;
+
+    /** Sequence of the last published event; slots up to it are readable. */
+    private volatile long cursor = -1;
+    /** Lowest worker sequence seen by the publisher, so it need not read them all per event. */
+    private long cachedGate = -1;
+    /** Whether the source is paused; changed only under {@link #backpressureLock}. */
+    private volatile boolean paused;
+    private final Object backpressureLock = new Object();
+    private final AtomicBoolean signalNeeded = new AtomicBoolean();
+    private final Object signal = new Object();
+    private volatile boolean running = true;
+
+    /**
+     * @param size    number of slots, a power of two
+     * @param workers worker threads; 0 handles events on the publishing thread
+     * @param key     events with equal keys are handled in publishing order
+     */
+    @SuppressWarnings("unchecked")
+    public EventRing(String name, int size, int workers, Function<? super T, ?> key, Consumer<? super T> handler,
+                     Backpressure backpressure, MeterRegistry meterRegistry) {
+        if (Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two: " + size);
+        }
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot<>();
+        }
+        this.mask = size - 1;
+        this.key = key;
+        this.handler = handler;
+        this.backpressure = backpressure;
+        this.pauseAt = size - size / 4;
+        this.resumeAt = size / 4;
+        this.latency = Timer.builder("recommendation.events.ring.latency")
+                .description("Time from publishing an event until it has been handled")
+                .tag("ring", name)
+                .register(meterRegistry);
+        this.pauses = Counter.builder("recommendation.events.ring.pauses")
+                .description("Times the event source was paused because the ring was filling up")
+                .tag("ring", name)
+                .register(meterRegistry);
+        Gauge.builder("recommendation.events.ring.depth", this, EventRing::depth)
+                .description("Events published and not yet passed by every worker")
+                .tag("ring", name)
+                .register(meterRegistry);
+
+        this.workers = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            Worker worker = new Worker(i);
+            worker.thread = new Thread(worker, name + "-worker-" + i);
+            worker.thread.setDaemon(true);
+            this.workers.add(worker);
+        }
+        this.workers.forEach(worker -> worker.thread.start());
+    }
+
+    /**
+     * Publishes the event, waiting for a free slot if the ring is full. Safe
+     * to call from several threads; their events are ordered as they get the
+     * lock.
+     */
+    public void publish(T event) {
+        if (workers.isEmpty()) {
+            handle(event, System.nanoTime());
+            return;
+        }
+        boolean filling;
+        synchronized (this) {
+            long sequence = cursor + 1;
+            awaitFreeSlot(sequence);
+            Slot<T> slot = slots[(int) (sequence & mask)];
+            slot.event = event;
+            slot.worker = Math.floorMod(key.apply(event).hashCode(), workers.size());
+            slot.publishedAt = System.nanoTime();
+            cursor = sequence;
+            // The cached gate only ever overstates the depth, so refresh it before pausing
+            filling = !paused && sequence - cachedGate >= pauseAt
+                    && sequence - (cachedGate = minimumSequence()) >= pauseAt;
+        }
+        if (signalNeeded.getAndSet(false)) {
+            synchronized (signal) {
+                signal.notifyAll();
+            }
+        }
+        if (filling) {
+            updateBackpressure();
+        }
+    }
+
+    /**
+     * Events published and not yet passed by every worker.
+     */
+    public long depth() {
+        return workers.isEmpty() ? 0 : cursor - minimumSequence();
+    }
+
+    /**
+     * Stops the workers once they have handled every published event.
+     */
+    public void close() {
+        running = false;
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        for (Worker worker : workers) {
+            try {
+                worker.thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void awaitFreeSlot(long sequence) {
+        long wrapPoint = sequence - slots.length;
+        if (wrapPoint <= cachedGate) {
+            return;
+        }
+        cachedGate = minimumSequence();
+        while (wrapPoint > cachedGate) {
+            LockSupport.parkNanos(FULL_WAIT_NANOS);
+            cachedGate = minimumSequence();
+        }
+    }
+
+    private long minimumSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (Worker worker : workers) {
+            minimum = Math.min(minimum, worker.sequence);
+        }
+        return minimum;
+    }
+
+    private void handle(T event, long publishedAt) {
+        try {
+            handler.accept(event);
+        } catch (Exception e) {
+            log.error("Error handling event {}: {}", key.apply(event), e.getMessage(), e);
+        }
+        latency.record(System.nanoTime() - publishedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private void updateBackpressure() {
+        synchronized (backpressureLock) {
+            if (!paused && depth() >= pauseAt) {
+                paused = true;
+                pauses.increment();
+                backpressure.pause();
+            }
+            // Checked again after pausing, as workers that just drained the ring saw it unpaused
+            if (paused && depth() <= resumeAt) {
+                paused = false;
+                backpressure.resume();
+            }
+        }
+    }
+
+    private static final class Slot<T> {
+        private T event;
+        private int worker;
+        private long publishedAt;
+    }
+
+    private final class Worker implements Runnable {
+
+        private final int index;
+        private Thread thread;
+        /** Sequence of the last slot this worker is done with. */
+        private volatile long sequence = -1;
+
+        private Worker(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            long next = 0;
+            while (true) {
+                long available = awaitPublished(next);
+                if (available < next) {
+                    return;
+                }
+                for (; next <= available; next++) {
+                    Slot<T> slot = slots[(int) (next & mask)];
+                    if (slot.worker == index) {
+                        handle(slot.event, slot.publishedAt);
+                        // Only this worker reads the event, so the slot need not keep it alive until reused
+                        slot.event = null;
+                    }
+                }
+                sequence = available;
+                if (paused) {
+                    updateBackpressure();
+                }
+            }
+        }
+
+        /**
+         * Waits until {@code next} is published and returns the cursor, or
+         * returns less than {@code next} once closed and drained.
+         */
+        private long awaitPublished(long next) {
+            for (int spin = 0; spin < SPINS; spin++) {
+                long available = cursor;
+                if (available >= next || !running) {
+                    return available;
+                }
+                Thread.onSpinWait();
+            }
+            synchronized (signal) {
+                long available;
+                while ((available = cursor) < next && running) {
+                    signalNeeded.set(true);
+                    if (cursor >= next) {
+                        continue;
+                    }
+                    try {
+                        signal.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return next - 1;
+                    }
+                }
+                return available;
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.model.UserProfile;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Compiles profiles and jobs into their primitive scoring forms. Done once at
+ * ingest (or once per request) so that scoring many pairs does no string work.
+ */
+@Component
+@RequiredArgsConstructor
+public class FeatureEncoder {
+
+    private static final Map<String, Integer> EXPERIENCE_LEVELS = Map.of(
+        "ENTRY", 1,
+        "MID", 2,
+        "SENIOR", 3
+    );
+
+    private final SkillDictionary skillDictionary;
+    @Getter
+    private final TermDictionary locationDictionary = new TermDictionary();
+    @Getter
+    private final TermDictionary companyDictionary = new TermDictionary();
+
+    public CompiledJobPosting compile(JobPosting jobPosting) {
+        return new CompiledJobPosting(
+            jobPosting.getId(),
+            skillDictionary.encode(jobPosting.getRequiredSkills()),
+            locationDictionary.idOrAbsent(jobPosting.getLocation()),
+            experienceOrdinal(jobPosting.getExperienceLevel()),
+            jobPosting.getSalary() == null ? Double.NaN : jobPosting.getSalary(),
+            companyDictionary.idOrAbsent(jobPosting.getCompany())
+        );
+    }
+
+    public CompiledUserProfile compile(UserProfile userProfile) {
+        return new CompiledUserProfile(
+            userProfile.getId(),
+            skillDictionary.encode(userProfile.getSkills()),
+            locationDictionary.idOrAbsent(userProfile.getPreferredLocation()),
+            experienceOrdinal(userProfile.getExperienceLevel()),
+            userProfile.getExpectedSalary() == null ? Double.NaN : userProfile.getExpectedSalary(),
+            companyDictionary.encode(userProfile.getPreferredCompanies())
+        );
+    }
+
+    /**
+     * Id of a location already seen in a job or profile, or -1 otherwise.
+     */
+    public int findLocationId(String location) {
+        return locationDictionary.find(location);
+    }
+
+    /**
+     * Ordinal of an experience level (ENTRY=1, MID=2, SENIOR=3), or 0 when unknown.
+     */
+    public static int experienceOrdinal(String experienceLevel) {
+        if (experienceLevel == null) {
+            return 0;
+        }
+        return EXPERIENCE_LEVELS.getOrDefault(experienceLevel.toUpperCase(), 0);
+    }
+}
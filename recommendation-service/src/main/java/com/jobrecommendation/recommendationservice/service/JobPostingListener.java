@@ -1,43 +1,234 @@
 package com.jobrecommendation.recommendationservice.service;
 
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
 import com.jobrecommendation.recommendationservice.model.JobPosting;
-import com.jobrecommendation.recommendationservice.model.UserProfile;
-import com.jobrecommendation.recommendationservice.model.JobRecommendation;
-import lombok.RequiredArgsConstructor;
+import com.jobrecommendation.recommendationservice.model.JobPostingEvent;
+import com.jobrecommendation.recommendationservice.repository.JobCatalog;
+import com.jobrecommendation.recommendationservice.repository.UserRecommendationStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Applies job events to the catalog on the consumer threads, a poll at a
+ * time, then publishes them to a ring of scoring workers that patch the
+ * stored rankings, so scoring cost does not hold up consumption. Events are
+ * keyed by job id, so a job's events arrive on one partition, and are patched
+ * in order. A {@code DEACTIVATED} event removes the job. The listener
+ * container is paused while the ring is filling up. Every instance keeps the
+ * whole catalog, so it consumes in a group of its own and is assigned every
+ * partition.
+ *
+ * <p>Per batch, {@code recommendation.events.batch} times applying it,
+ * {@code recommendation.events.batch.size} records its size and
+ * {@code recommendation.events.batch.deduplicated} counts the events
+ * superseded by a later event of the same job. Events that occurred before
+ * the job's latest applied event, e.g. redelivered ones, are dropped and
+ * counted in {@code recommendation.events.stale}.
+ */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class JobPostingListener {
 
+    static final String LISTENER_ID = "job-postings";
+
     private final RecommendationEngine recommendationEngine;
+    private final JobCatalog jobCatalog;
+    private final UserRecommendationStore userRecommendationStore;
+    private final ReplayTracker replayTracker;
+    private final WorkScheduler workScheduler;
+    private final EventRing<JobPosting> scoringRing;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+    private final Counter deduplicated;
+    private final Counter stale;
+    /**
+     * Per job, when the latest applied event occurred. Removed jobs are kept,
+     * so a redelivered older event cannot bring them back.
+     */
+    private final ConcurrentMap<String, Instant> appliedAt = new ConcurrentHashMap<>();
+
+    public JobPostingListener(RecommendationEngine recommendationEngine,
+                              JobCatalog jobCatalog,
+                              UserRecommendationStore userRecommendationStore,
+                              ReplayTracker replayTracker,
+                              WorkScheduler workScheduler,
+                              KafkaListenerEndpointRegistry listenerRegistry,
+                              @Value("${app.recommendations.job-events.ring-size:8192}") int ringSize,
+                              @Value("${app.recommendations.job-events.scoring-workers:2}") int scoringWorkers,
+                              MeterRegistry meterRegistry) {
+        this.recommendationEngine = recommendationEngine;
+        this.jobCatalog = jobCatalog;
+        this.userRecommendationStore = userRecommendationStore;
+        this.replayTracker = replayTracker;
+        this.workScheduler = workScheduler;
+        this.scoringRing = new EventRing<>("job-events", ringSize, scoringWorkers, JobPosting::getId,
+                this::patchStoredRankings, new ContainerBackpressure(listenerRegistry), meterRegistry);
+        this.batchTimer = Timer.builder("recommendation.events.batch")
+                .description("Time to apply a batch of job events to the catalog and hand it to scoring")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("recommendation.events.batch.size")
+                .description("Job events per batch")
+                .register(meterRegistry);
+        this.deduplicated = Counter.builder("recommendation.events.batch.deduplicated")
+                .description("Job events skipped for a later event of the same job in the batch")
+                .register(meterRegistry);
+        this.stale = Counter.builder("recommendation.events.stale")
+                .description("Job events skipped for being older than the job's latest applied event")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(id = LISTENER_ID, topics = "job-postings", groupId = "${spring.kafka.consumer.group-id}")
+    public void handleJobPostings(List<ConsumerRecord<String, JobPostingEvent>> records) {
+        batchTimer.record(() -> applyBatch(records));
+    }
+
+    private void applyBatch(List<ConsumerRecord<String, JobPostingEvent>> records) {
+        // Only the latest state of each job matters, so earlier events in the batch are skipped
+        Map<String, JobPostingEvent> latest = new LinkedHashMap<>();
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        int events = 0;
+        for (ConsumerRecord<String, JobPostingEvent> record : records) {
+            offsets.merge(new TopicPartition(record.topic(), record.partition()), record.offset(), Math::max);
+            JobPostingEvent event = record.value();
+            if (event == null || event.jobId() == null) {
+                continue;
+            }
+            if (isOlder(event, latest.containsKey(event.jobId())
+                    ? latest.get(event.jobId()).occurredAt() : appliedAt.get(event.jobId()))) {
+                // Redelivered or replayed after a newer event of the job was applied
+                stale.increment();
+                continue;
+            }
+            events++;
+            latest.remove(event.jobId());
+            latest.put(event.jobId(), event);
+        }
+        List<JobPosting> jobPostings = new ArrayList<>(latest.size());
+        latest.values().forEach(event -> jobPostings.add(stateAfter(event)));
+        log.info("Received {} job posting events for {} jobs", records.size(), jobPostings.size());
+        batchSize.record(records.size());
+        deduplicated.increment(events - jobPostings.size());
+
+        // Keep the local catalog in sync: create/update upserts, isActive=false removes
+        jobCatalog.upsertAll(jobPostings);
+        latest.values().forEach(event -> {
+            if (event.occurredAt() != null) {
+                appliedAt.put(event.jobId(), event.occurredAt());
+            }
+        });
+        offsets.forEach((partition, offset) -> replayTracker.applied(partition.topic(), partition.partition(), offset));
+
+        jobPostings.forEach(scoringRing::publish);
+    }
+
+    /**
+     * Events published before the envelope carried a time are never older.
+     */
+    private static boolean isOlder(JobPostingEvent event, Instant applied) {
+        return event.occurredAt() != null && applied != null && event.occurredAt().isBefore(applied);
+    }
+
+    /**
+     * The job as the event leaves it; a deactivation removes the job whatever the document says.
+     */
+    private static JobPosting stateAfter(JobPostingEvent event) {
+        JobPosting jobPosting = event.jobPosting() != null ? event.jobPosting() : new JobPosting();
+        jobPosting.setId(event.jobId());
+        if (event.type() == JobPostingEvent.Type.DEACTIVATED) {
+            jobPosting.setIsActive(false);
+        }
+        return jobPosting;
+    }
+
+    /**
+     * Job events received and not yet scored.
+     */
+    public long scoringBacklog() {
+        return scoringRing.depth();
+    }
 
-    @KafkaListener(topics = "job-postings", groupId = "recommendation-group")
-    public void handleJobPosting(JobPosting jobPosting) {
-        log.info("Received job posting event: {}", jobPosting.getId());
-        
-        // Here you would:
-        // 1. Fetch relevant user profiles from the user service
-        // 2. Generate recommendations for each user
-        // 3. Store or send the recommendations
-        
+    @PreDestroy
+    public void stopScoring() {
+        scoringRing.close();
+    }
+
+    private void patchStoredRankings(JobPosting jobPosting) {
+        // Scored as update work, behind interactive reads
         try {
+            workScheduler.call(WorkPriority.UPDATE, () -> {
+                processJobPostingForRecommendations(jobPosting);
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            // Dropping the patch would leave stored rankings wrong, so apply it on this worker instead
             processJobPostingForRecommendations(jobPosting);
-        } catch (Exception e) {
-            log.error("Error processing job posting for recommendations: {}", e.getMessage(), e);
         }
     }
 
     private void processJobPostingForRecommendations(JobPosting jobPosting) {
-        // This is a placeholder. In a real implementation, you would:
-        // 1. Call the User Service to get relevant user profiles
-        // 2. For each user profile, calculate match score
-        // 3. Store top recommendations for each user
-        // 4. Potentially notify users of high-match jobs
-        
-        log.info("Processing job posting: {} for recommendations", jobPosting.getId());
+        // Patch the stored rankings this job can affect instead of recomputing them
+        Optional<CompiledJobPosting> compiledJob = jobCatalog.findCompiledById(jobPosting.getId());
+        if (compiledJob.isEmpty()) {
+            // Not backfilled; a list left shorter than a read's limit is re-ranked on that read
+            Set<String> holders = userRecommendationStore.findUsersHoldingJob(jobPosting.getId());
+            holders.forEach(userId -> userRecommendationStore.update(userId, stored -> stored.withoutJob(jobPosting.getId())));
+            log.info("Removed job posting: {} from {} stored rankings", jobPosting.getId(), holders.size());
+            return;
+        }
+
+        CompiledJobPosting job = compiledJob.get();
+        Set<String> affectedUsers = userRecommendationStore.findAffectedUsers(job);
+        affectedUsers.forEach(userId -> userRecommendationStore.update(userId, stored ->
+                stored.withScore(job.getJobId(), recommendationEngine.calculateMatchScore(stored.getUser(), job))));
+        log.info("Processed job posting: {} against {} stored rankings", jobPosting.getId(), affectedUsers.size());
+    }
+
+    /**
+     * Pauses the listener container, which keeps polling so the consumer stays
+     * in its group, but stops delivering records until resumed.
+     */
+    private record ContainerBackpressure(KafkaListenerEndpointRegistry listenerRegistry)
+            implements EventRing.Backpressure {
+
+        @Override
+        public void pause() {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+            if (container != null) {
+                log.info("Scoring ring filling up, pausing job posting consumption");
+                container.pause();
+            }
+        }
+
+        @Override
+        public void resume() {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+            if (container != null) {
+                log.info("Scoring ring drained, resuming job posting consumption");
+                container.resume();
+            }
+        }
     }
 }
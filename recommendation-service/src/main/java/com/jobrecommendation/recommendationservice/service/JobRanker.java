@@ -0,0 +1,315 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.JobBlock;
+import com.jobrecommendation.recommendationservice.model.JobFilter;
+import com.jobrecommendation.recommendationservice.model.SkillCandidates;
+import com.jobrecommendation.recommendationservice.model.UserRecommendations;
+import com.jobrecommendation.recommendationservice.repository.JobBucket;
+import com.jobrecommendation.recommendationservice.repository.JobCatalog;
+import com.jobrecommendation.recommendationservice.repository.JobColumns;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Ranks the catalog for one user. Ties on score are broken by job id, so the
+ * ranking does not depend on the order in which jobs are visited.
+ *
+ * <p>With threshold pruning, candidates come from the skill posting lists and
+ * are visited by their best possible score, given how many of their skills the
+ * user has. The walk stops once no remaining candidate can reach the current
+ * k-th score. Jobs sharing no skill with the user are then visited bucket by
+ * bucket, best bucket first and highest salary first within a bucket, until
+ * their bound drops below the k-th score as well. Either way the result is the
+ * exhaustive one, unless a deadline cuts the ranking short.
+ */
+@Component
+public class JobRanker {
+
+    private static final int ANY_LOCATION = Integer.MIN_VALUE;
+    /** Location filter naming a location no job has. */
+    private static final int UNKNOWN_LOCATION = -2;
+    /** Rows scored per batch by a full scan. */
+    private static final int BLOCK_SIZE = 1024;
+
+    private final RecommendationEngine recommendationEngine;
+    private final JobCatalog jobCatalog;
+    private final FeatureEncoder featureEncoder;
+    private final boolean thresholdPruning;
+
+    public JobRanker(RecommendationEngine recommendationEngine, JobCatalog jobCatalog, FeatureEncoder featureEncoder,
+                     @Value("${app.recommendations.threshold-pruning:true}") boolean thresholdPruning) {
+        this.recommendationEngine = recommendationEngine;
+        this.jobCatalog = jobCatalog;
+        this.featureEncoder = featureEncoder;
+        this.thresholdPruning = thresholdPruning;
+    }
+
+    public UserRecommendations rank(CompiledUserProfile user, int capacity) {
+        return rank(user, capacity, JobFilter.NONE);
+    }
+
+    public UserRecommendations rank(CompiledUserProfile user, int capacity, JobFilter filter) {
+        return rank(user, capacity, filter, Deadline.NONE);
+    }
+
+    /**
+     * Once the deadline has passed, returns the best of the jobs visited so far
+     * as a ranking that is not {@linkplain UserRecommendations#isComplete()
+     * complete}. The deadline is checked between chunks of scored jobs, so at
+     * least one chunk is always scored; gathering the candidates from the skill
+     * posting lists happens before the first check. Pruning visits the jobs with
+     * the best bounds first, which makes an early result close to the exact one.
+     */
+    public UserRecommendations rank(CompiledUserProfile user, int capacity, JobFilter filter, Deadline deadline) {
+        return thresholdPruning
+                ? rankPruned(user, capacity, filter, deadline)
+                : rankAll(user, capacity, filter, deadline);
+    }
+
+    public UserRecommendations rankAll(CompiledUserProfile user, int capacity, JobFilter filter) {
+        return rankAll(user, capacity, filter, Deadline.NONE);
+    }
+
+    /**
+     * Scores every job of the catalog that passes the filter, scanning the
+     * columnar snapshot a block of rows at a time, until the deadline passes.
+     */
+    public UserRecommendations rankAll(CompiledUserProfile user, int capacity, JobFilter filter, Deadline deadline) {
+        int locationId = locationIdOf(filter);
+        double minSalary = minSalaryOf(filter);
+        JobColumns jobs = jobCatalog.snapshot();
+
+        TopKSelector topK = new TopKSelector(capacity, (a, b) -> jobs.jobId(a).compareTo(jobs.jobId(b)));
+        JobBlock block = new JobBlock(Math.min(BLOCK_SIZE, jobs.rowCount()));
+        double[] blockScores = new double[block.capacity()];
+        int accepted = 0;
+        boolean complete = true;
+        for (int from = 0; from < jobs.rowCount(); from += block.capacity()) {
+            if (from > 0 && deadline.isExpired()) {
+                complete = false;
+                break;
+            }
+            int to = Math.min(jobs.rowCount(), from + block.capacity());
+            jobs.copyFeatures(from, to, block);
+            for (int row = from; row < to; row++) {
+                block.getSkillMatches()[row - from] = recommendationEngine.calculateSkillMatch(user, jobs, row);
+            }
+            recommendationEngine.calculateMatchScores(user, block, blockScores);
+            for (int row = from; row < to; row++) {
+                if (jobs.isLive(row) && accepts(block.getLocationIds()[row - from], block.getSalaries()[row - from],
+                        locationId, minSalary)) {
+                    topK.offer(row, blockScores[row - from]);
+                    accepted++;
+                }
+            }
+        }
+
+        return toRecommendations(user, jobs, topK, capacity, accepted <= capacity, complete);
+    }
+
+    /**
+     * Ranks one catalog snapshot for several users in a single scan. Each block
+     * of rows is copied out of the snapshot once and scored for every user while
+     * it is still in cache, and the skills each row shares with the users are
+     * counted for the whole group at once. The rankings equal those of
+     * {@link #rankAll(CompiledUserProfile, int, JobFilter)} per user.
+     */
+    public List<UserRecommendations> rankAll(List<CompiledUserProfile> users, int capacity, JobColumns jobs) {
+        TopKSelector[] selections = new TopKSelector[users.size()];
+        for (int i = 0; i < selections.length; i++) {
+            selections[i] = new TopKSelector(capacity, (a, b) -> jobs.jobId(a).compareTo(jobs.jobId(b)));
+        }
+        UserSkillIndex skillIndex = new UserSkillIndex(users);
+        JobBlock block = new JobBlock(Math.min(BLOCK_SIZE, jobs.rowCount()));
+        int stride = block.capacity();
+        double[] blockScores = new double[stride];
+        int[] skillCounts = new int[stride];
+        int[] commonSkills = new int[users.size() * stride];
+        for (int from = 0; from < jobs.rowCount(); from += stride) {
+            int to = Math.min(jobs.rowCount(), from + stride);
+            jobs.copyFeatures(from, to, block);
+            for (int row = from; row < to; row++) {
+                skillCounts[row - from] = jobs.skillCount(row);
+            }
+            Arrays.fill(commonSkills, 0);
+            skillIndex.countCommonSkills(jobs, from, to, commonSkills, stride);
+            for (int i = 0; i < selections.length; i++) {
+                CompiledUserProfile user = users.get(i);
+                for (int r = 0; r < to - from; r++) {
+                    // Same division as RecommendationEngine.calculateSkillMatch, so the same doubles
+                    block.getSkillMatches()[r] = skillCounts[r] == 0 ? 0.0
+                            : (double) commonSkills[i * stride + r] / skillCounts[r];
+                }
+                recommendationEngine.calculateMatchScores(user, block, blockScores);
+                for (int row = from; row < to; row++) {
+                    if (jobs.isLive(row)) {
+                        selections[i].offer(row, blockScores[row - from]);
+                    }
+                }
+            }
+        }
+
+        List<UserRecommendations> rankings = new ArrayList<>(selections.length);
+        for (int i = 0; i < selections.length; i++) {
+            rankings.add(toRecommendations(users.get(i), jobs, selections[i], capacity,
+                    jobs.liveCount() <= capacity, true));
+        }
+        return rankings;
+    }
+
+    private UserRecommendations rankPruned(CompiledUserProfile user, int capacity, JobFilter filter,
+                                           Deadline deadline) {
+        int locationId = locationIdOf(filter);
+        double minSalary = minSalaryOf(filter);
+        // Every job offered to the selection, so indices stay valid for the tie-breaker
+        List<CompiledJobPosting> scored = new ArrayList<>();
+        TopKSelector topK = new TopKSelector(capacity, byJobId(scored));
+
+        // 1. Jobs sharing a skill with the user, by descending bound
+        SkillCandidates candidates = jobCatalog.findCandidatesBySkills(user.getSkillIds());
+        List<CompiledJobPosting> candidateJobs = candidates.getJobs();
+        int[] matchingSkills = candidates.getMatchingSkills();
+        double[] bounds = new double[candidateJobs.size()];
+        int[] accepted = new int[candidateJobs.size()];
+        int acceptedCount = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            CompiledJobPosting job = candidateJobs.get(i);
+            if (accepts(job, locationId, minSalary)) {
+                bounds[i] = recommendationEngine.maxMatchScore(user, job.getLocationId(), job.getExperienceLevel(),
+                        job.getSalary(), matchingSkills[i], job.getRequiredSkillIds().length);
+                accepted[acceptedCount++] = i;
+            }
+        }
+        BoundQueue order = new BoundQueue(accepted, acceptedCount, bounds);
+        boolean complete = true;
+        while (!order.isEmpty()) {
+            // A job whose bound equals the k-th score can still win on job id, so only stop below it
+            if (topK.isFull() && bounds[order.peek()] < topK.threshold()) {
+                break;
+            }
+            if (isChunkEnd(scored.size()) && deadline.isExpired()) {
+                complete = false;
+                break;
+            }
+            offer(topK, scored, user, candidateJobs.get(order.poll()));
+        }
+        if (!complete) {
+            return toRecommendations(user, scored, topK, capacity, false, false);
+        }
+
+        // 2. Jobs sharing no skill, bucket by bucket; location and experience are fixed per bucket
+        List<JobBucket> buckets = jobCatalog.findAllBuckets();
+        if (locationId != ANY_LOCATION) {
+            buckets.removeIf(bucket -> bucket.getLocationId() != locationId);
+        }
+        double[] bucketBounds = new double[buckets.size()];
+        Integer[] bucketOrder = new Integer[buckets.size()];
+        for (int i = 0; i < bucketBounds.length; i++) {
+            JobBucket bucket = buckets.get(i);
+            bucketBounds[i] = recommendationEngine.maxMatchScore(user, bucket.getLocationId(),
+                    bucket.getExperienceLevel(), bucket.maxSalary(), 0, 0);
+            bucketOrder[i] = i;
+        }
+        Arrays.sort(bucketOrder, (a, b) -> Double.compare(bucketBounds[b], bucketBounds[a]));
+        visitBuckets:
+        for (int b : bucketOrder) {
+            if (topK.isFull() && bucketBounds[b] < topK.threshold()) {
+                break;
+            }
+            JobBucket bucket = buckets.get(b);
+            int first = bucket.firstIndexWithSalaryAtLeast(minSalary);
+            // Highest salary first: the salary factor, and so the bound, only decreases from there
+            for (int i = bucket.size() - 1; i >= first; i--) {
+                CompiledJobPosting job = bucket.get(i);
+                if (topK.isFull() && recommendationEngine.maxMatchScore(user, bucket.getLocationId(),
+                        bucket.getExperienceLevel(), job.getSalary(), 0, 0) < topK.threshold()) {
+                    break;
+                }
+                if (!candidates.contains(job.getJobId())) {
+                    if (isChunkEnd(scored.size()) && deadline.isExpired()) {
+                        complete = false;
+                        break visitBuckets;
+                    }
+                    offer(topK, scored, user, job);
+                }
+            }
+        }
+
+        // Nothing was pruned while the selection had room, so a partial one holds every job
+        return toRecommendations(user, scored, topK, capacity, !topK.isFull(), complete);
+    }
+
+    private static boolean isChunkEnd(int visited) {
+        return visited > 0 && visited % BLOCK_SIZE == 0;
+    }
+
+    private void offer(TopKSelector topK, List<CompiledJobPosting> scored, CompiledUserProfile user,
+                       CompiledJobPosting job) {
+        scored.add(job);
+        topK.offer(scored.size() - 1, recommendationEngine.calculateMatchScore(user, job));
+    }
+
+    private UserRecommendations toRecommendations(CompiledUserProfile user, List<CompiledJobPosting> jobs,
+                                                  TopKSelector topK, int capacity, boolean exhaustive,
+                                                  boolean complete) {
+        int[] indices = topK.sortedIndices();
+        String[] jobIds = new String[indices.length];
+        double[] scores = new double[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            CompiledJobPosting job = jobs.get(indices[i]);
+            jobIds[i] = job.getJobId();
+            scores[i] = recommendationEngine.calculateMatchScore(user, job);
+        }
+        return complete
+                ? UserRecommendations.of(user, jobIds, scores, capacity, exhaustive)
+                : UserRecommendations.partial(user, jobIds, scores, capacity);
+    }
+
+    private UserRecommendations toRecommendations(CompiledUserProfile user, JobColumns jobs, TopKSelector topK,
+                                                  int capacity, boolean exhaustive, boolean complete) {
+        int[] rows = topK.sortedIndices();
+        String[] jobIds = new String[rows.length];
+        double[] scores = new double[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            jobIds[i] = jobs.jobId(rows[i]);
+            scores[i] = recommendationEngine.calculateMatchScore(user, jobs, rows[i]);
+        }
+        return complete
+                ? UserRecommendations.of(user, jobIds, scores, capacity, exhaustive)
+                : UserRecommendations.partial(user, jobIds, scores, capacity);
+    }
+
+    private int locationIdOf(JobFilter filter) {
+        if (filter.location() == null) {
+            return ANY_LOCATION;
+        }
+        int locationId = featureEncoder.findLocationId(filter.location());
+        return locationId < 0 ? UNKNOWN_LOCATION : locationId;
+    }
+
+    private static double minSalaryOf(JobFilter filter) {
+        return filter.minSalary() == null ? Double.NEGATIVE_INFINITY : filter.minSalary();
+    }
+
+    private static boolean accepts(CompiledJobPosting job, int locationId, double minSalary) {
+        return accepts(job.getLocationId(), job.getSalary(), locationId, minSalary);
+    }
+
+    private static boolean accepts(int jobLocationId, double salary, int locationId, double minSalary) {
+        if (locationId != ANY_LOCATION && jobLocationId != locationId) {
+            return false;
+        }
+        return minSalary == Double.NEGATIVE_INFINITY || salary >= minSalary;
+    }
+
+    private static IntBinaryOperator byJobId(List<CompiledJobPosting> jobs) {
+        return (a, b) -> jobs.get(a).getJobId().compareTo(jobs.get(b).getJobId());
+    }
+}
@@ -0,0 +1,78 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Selects the top-K candidates of a scored range on the scoring pool. Each
+ * worker keeps its own {@link TopKSelector} and partial selections are merged
+ * on the way back up; ranges below the parallel threshold stay sequential on
+ * the calling thread.
+ */
+@Component
+public class ParallelScorer {
+
+    private final ForkJoinPool scoringPool;
+    private final int parallelThreshold;
+
+    public ParallelScorer(@Qualifier("scoringPool") ForkJoinPool scoringPool,
+                          @Value("${app.scoring.parallel-threshold:50000}") int parallelThreshold) {
+        this.scoringPool = scoringPool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Scores candidates {@code 0..candidateCount-1} and keeps the best {@code limit}.
+     */
+    public TopKSelector selectTopK(int candidateCount, int limit, IntToDoubleFunction scorer) {
+        if (candidateCount < parallelThreshold || scoringPool.getParallelism() == 1) {
+            return scoreRange(0, candidateCount, limit, scorer);
+        }
+        int chunkSize = Math.max(1_000, candidateCount / (scoringPool.getParallelism() * 4));
+        return scoringPool.invoke(new ScoringTask(0, candidateCount, limit, chunkSize, scorer));
+    }
+
+    private static TopKSelector scoreRange(int from, int to, int limit, IntToDoubleFunction scorer) {
+        TopKSelector topK = new TopKSelector(limit);
+        for (int i = from; i < to; i++) {
+            topK.offer(i, scorer.applyAsDouble(i));
+        }
+        return topK;
+    }
+
+    private static final class ScoringTask extends RecursiveTask<TopKSelector> {
+
+        private final int from;
+        private final int to;
+        private final int limit;
+        private final int chunkSize;
+        private final IntToDoubleFunction scorer;
+
+        private ScoringTask(int from, int to, int limit, int chunkSize, IntToDoubleFunction scorer) {
+            this.from = from;
+            this.to = to;
+            this.limit = limit;
+            this.chunkSize = chunkSize;
+            this.scorer = scorer;
+        }
+
+        @Override
+        protected TopKSelector compute() {
+            if (to - from <= chunkSize) {
+                return scoreRange(from, to, limit, scorer);
+            }
+            int middle = (from + to) >>> 1;
+            ScoringTask left = new ScoringTask(from, middle, limit, chunkSize, scorer);
+            ScoringTask right = new ScoringTask(middle, to, limit, chunkSize, scorer);
+            left.fork();
+            TopKSelector merged = right.compute();
+            merged.offerAll(left.join());
+            return merged;
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.jobrecommendation.recommendationservice.service;
 
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.JobBlock;
 import com.jobrecommendation.recommendationservice.model.JobPosting;
 import com.jobrecommendation.recommendationservice.model.UserProfile;
 import com.jobrecommendation.recommendationservice.model.JobRecommendation;
+import com.jobrecommendation.recommendationservice.model.MatchFactors;
+import com.jobrecommendation.recommendationservice.repository.JobColumns;
 import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
 import org.springframework.stereotype.Service;
 import java.util.*;
@@ -11,51 +16,200 @@ import java.util.stream.Collectors;
 @Service
 public class RecommendationEngine {
 
-    private static final double SKILLS_WEIGHT = 0.4;
-    private static final double LOCATION_WEIGHT = 0.2;
-    private static final double EXPERIENCE_WEIGHT = 0.2;
-    private static final double SALARY_WEIGHT = 0.1;
-    private static final double COMPANY_WEIGHT = 0.1;
+    static final double SKILLS_WEIGHT = 0.4;
+    static final double LOCATION_WEIGHT = 0.2;
+    static final double EXPERIENCE_WEIGHT = 0.2;
+    static final double SALARY_WEIGHT = 0.1;
+    static final double COMPANY_WEIGHT = 0.1;
+
+    /**
+     * Highest score a job sharing no skill with the user can reach, summed in the
+     * same order as the scoring methods so the bound holds exactly.
+     */
+    public static final double MAX_SCORE_WITHOUT_SKILL_MATCH =
+            (0.0 * SKILLS_WEIGHT) + (1.0 * LOCATION_WEIGHT) + (1.0 * EXPERIENCE_WEIGHT) +
+            (1.0 * SALARY_WEIGHT) + (1.0 * COMPANY_WEIGHT);
+
+    private final BatchScorer batchScorer;
+
+    public RecommendationEngine() {
+        this(BatchScorer.best());
+    }
+
+    public RecommendationEngine(BatchScorer batchScorer) {
+        this.batchScorer = batchScorer;
+    }
 
     public JobRecommendation calculateJobMatch(UserProfile userProfile, JobPosting jobPosting) {
-        Map<String, Double> matchFactors = new HashMap<>();
-        
         // Calculate skill match
         double skillMatch = calculateSkillMatch(userProfile.getSkills(), jobPosting.getRequiredSkills());
-        matchFactors.put("skillMatch", skillMatch);
 
         // Calculate location match
         double locationMatch = calculateLocationMatch(userProfile.getPreferredLocation(), jobPosting.getLocation());
-        matchFactors.put("locationMatch", locationMatch);
 
         // Calculate experience match
         double experienceMatch = calculateExperienceMatch(userProfile.getExperienceLevel(), jobPosting.getExperienceLevel());
-        matchFactors.put("experienceMatch", experienceMatch);
 
         // Calculate salary match
         double salaryMatch = calculateSalaryMatch(userProfile.getExpectedSalary(), jobPosting.getSalary());
-        matchFactors.put("salaryMatch", salaryMatch);
 
         // Calculate company match
         double companyMatch = calculateCompanyMatch(userProfile.getPreferredCompanies(), jobPosting.getCompany());
-        matchFactors.put("companyMatch", companyMatch);
 
-        // Calculate overall match score
-        double matchScore = (skillMatch * SKILLS_WEIGHT) +
-                          (locationMatch * LOCATION_WEIGHT) +
-                          (experienceMatch * EXPERIENCE_WEIGHT) +
-                          (salaryMatch * SALARY_WEIGHT) +
-                          (companyMatch * COMPANY_WEIGHT);
+        MatchFactors matchFactors = new MatchFactors(skillMatch, locationMatch, experienceMatch, salaryMatch, companyMatch);
 
         JobRecommendation recommendation = new JobRecommendation();
         recommendation.setUserId(userProfile.getId());
         recommendation.setJobId(jobPosting.getId());
-        recommendation.setMatchScore(matchScore);
+        recommendation.setMatchScore(weightedScore(matchFactors));
         recommendation.setMatchFactors(matchFactors);
 
         return recommendation;
     }
 
+    /**
+     * Same score as {@link #calculateJobMatch} without building the recommendation
+     * and its match factors, for ranking many candidates.
+     */
+    public double calculateMatchScore(UserProfile userProfile, JobPosting jobPosting) {
+        return (calculateSkillMatch(userProfile.getSkills(), jobPosting.getRequiredSkills()) * SKILLS_WEIGHT) +
+               (calculateLocationMatch(userProfile.getPreferredLocation(), jobPosting.getLocation()) * LOCATION_WEIGHT) +
+               (calculateExperienceMatch(userProfile.getExperienceLevel(), jobPosting.getExperienceLevel()) * EXPERIENCE_WEIGHT) +
+               (calculateSalaryMatch(userProfile.getExpectedSalary(), jobPosting.getSalary()) * SALARY_WEIGHT) +
+               (calculateCompanyMatch(userProfile.getPreferredCompanies(), jobPosting.getCompany()) * COMPANY_WEIGHT);
+    }
+
+    /**
+     * Allocation-free score of a compiled pair; equal to the score of
+     * {@link #calculateJobMatch} for the profile and job they were compiled from.
+     */
+    public double calculateMatchScore(CompiledUserProfile userProfile, CompiledJobPosting jobPosting) {
+        return (calculateSkillMatch(userProfile.getSkillIds(), jobPosting.getRequiredSkillIds()) * SKILLS_WEIGHT) +
+               (calculateLocationMatch(userProfile.getLocationId(), jobPosting.getLocationId()) * LOCATION_WEIGHT) +
+               (calculateExperienceMatch(userProfile.getExperienceLevel(), jobPosting.getExperienceLevel()) * EXPERIENCE_WEIGHT) +
+               (calculateSalaryMatch(userProfile.getExpectedSalary(), jobPosting.getSalary()) * SALARY_WEIGHT) +
+               (calculateCompanyMatch(userProfile.getPreferredCompanyIds(), jobPosting.getCompanyId()) * COMPANY_WEIGHT);
+    }
+
+    /**
+     * Allocation-free score of a row of a columnar catalog snapshot; equal to the
+     * score of the compiled job the row was built from.
+     */
+    public double calculateMatchScore(CompiledUserProfile userProfile, JobColumns jobs, int row) {
+        return (calculateSkillMatch(userProfile, jobs, row) * SKILLS_WEIGHT) +
+               (calculateLocationMatch(userProfile.getLocationId(), jobs.locationId(row)) * LOCATION_WEIGHT) +
+               (calculateExperienceMatch(userProfile.getExperienceLevel(), jobs.experienceLevel(row)) * EXPERIENCE_WEIGHT) +
+               (calculateSalaryMatch(userProfile.getExpectedSalary(), jobs.salary(row)) * SALARY_WEIGHT) +
+               (calculateCompanyMatch(userProfile.getPreferredCompanyIds(), jobs.companyId(row)) * COMPANY_WEIGHT);
+    }
+
+    /**
+     * Scores of one user against each row of the block, whose skill matches
+     * must already be filled in. Equal to scoring the rows one by one; uses SIMD
+     * lanes when the JVM has the vector module.
+     */
+    public void calculateMatchScores(CompiledUserProfile userProfile, JobBlock jobs, double[] scores) {
+        batchScorer.score(userProfile, jobs, scores);
+    }
+
+    /**
+     * Builds the recommendation for a compiled pair. Match factors are only
+     * computed when {@code explain} is set; otherwise just the score is.
+     */
+    public JobRecommendation calculateJobMatch(CompiledUserProfile userProfile, CompiledJobPosting jobPosting,
+                                               boolean explain) {
+        JobRecommendation recommendation = new JobRecommendation();
+        recommendation.setUserId(userProfile.getUserId());
+        recommendation.setJobId(jobPosting.getJobId());
+        if (explain) {
+            MatchFactors matchFactors = explainMatch(userProfile, jobPosting);
+            recommendation.setMatchScore(weightedScore(matchFactors));
+            recommendation.setMatchFactors(matchFactors);
+        } else {
+            recommendation.setMatchScore(calculateMatchScore(userProfile, jobPosting));
+        }
+        return recommendation;
+    }
+
+    public MatchFactors explainMatch(CompiledUserProfile userProfile, CompiledJobPosting jobPosting) {
+        return new MatchFactors(
+            calculateSkillMatch(userProfile.getSkillIds(), jobPosting.getRequiredSkillIds()),
+            calculateLocationMatch(userProfile.getLocationId(), jobPosting.getLocationId()),
+            calculateExperienceMatch(userProfile.getExperienceLevel(), jobPosting.getExperienceLevel()),
+            calculateSalaryMatch(userProfile.getExpectedSalary(), jobPosting.getSalary()),
+            calculateCompanyMatch(userProfile.getPreferredCompanyIds(), jobPosting.getCompanyId())
+        );
+    }
+
+    private double weightedScore(MatchFactors matchFactors) {
+        return (matchFactors.skillMatch() * SKILLS_WEIGHT) +
+               (matchFactors.locationMatch() * LOCATION_WEIGHT) +
+               (matchFactors.experienceMatch() * EXPERIENCE_WEIGHT) +
+               (matchFactors.salaryMatch() * SALARY_WEIGHT) +
+               (matchFactors.companyMatch() * COMPANY_WEIGHT);
+    }
+
+    /**
+     * Best score a job can reach for the user given only its location, experience
+     * level, salary and how many of its {@code requiredSkillCount} skills the user
+     * has; only the company factor is assumed to match. Summed in the same order as
+     * {@link #calculateMatchScore(CompiledUserProfile, CompiledJobPosting)} so it is
+     * never below the actual score.
+     */
+    public double maxMatchScore(CompiledUserProfile userProfile, int locationId, int experienceLevel, double salary,
+                                int matchingSkills, int requiredSkillCount) {
+        double skillMatch = requiredSkillCount == 0 ? 0.0 : (double) matchingSkills / requiredSkillCount;
+        return (skillMatch * SKILLS_WEIGHT) +
+               (calculateLocationMatch(userProfile.getLocationId(), locationId) * LOCATION_WEIGHT) +
+               (calculateExperienceMatch(userProfile.getExperienceLevel(), experienceLevel) * EXPERIENCE_WEIGHT) +
+               (calculateSalaryMatch(userProfile.getExpectedSalary(), salary) * SALARY_WEIGHT) +
+               (1.0 * COMPANY_WEIGHT);
+    }
+
+    public double calculateSkillMatch(CompiledUserProfile userProfile, JobColumns jobs, int row) {
+        int requiredSkillCount = jobs.skillCount(row);
+        return requiredSkillCount == 0 ? 0.0
+                : (double) jobs.countCommonSkills(userProfile.getSkillIds(), row) / requiredSkillCount;
+    }
+
+    public double calculateSkillMatch(int[] userSkillIds, int[] requiredSkillIds) {
+        if (requiredSkillIds.length == 0) {
+            return 0.0;
+        }
+        return (double) TermDictionary.countCommon(userSkillIds, requiredSkillIds) / requiredSkillIds.length;
+    }
+
+    static double calculateLocationMatch(int preferredLocationId, int jobLocationId) {
+        return preferredLocationId >= 0 && preferredLocationId == jobLocationId ? 1.0 : 0.0;
+    }
+
+    static double calculateExperienceMatch(int userLevel, int requiredLevel) {
+        if (userLevel == 0 || requiredLevel == 0) {
+            return 0.0;
+        }
+        return userLevel >= requiredLevel ? 1.0 : 0.0;
+    }
+
+    static double calculateSalaryMatch(double expectedSalary, double offeredSalary) {
+        if (Double.isNaN(expectedSalary) || Double.isNaN(offeredSalary)) {
+            return 0.0;
+        }
+
+        if (offeredSalary >= expectedSalary) {
+            return 1.0;
+        }
+
+        double ratio = offeredSalary / expectedSalary;
+        return Math.max(0.0, Math.min(1.0, ratio));
+    }
+
+    static double calculateCompanyMatch(int[] preferredCompanyIds, int jobCompanyId) {
+        if (preferredCompanyIds.length == 0 || jobCompanyId < 0) {
+            return 0.5; // Neutral score if no preferences
+        }
+        return Arrays.binarySearch(preferredCompanyIds, jobCompanyId) >= 0 ? 1.0 : 0.5;
+    }
+
     private double calculateSkillMatch(List<String> userSkills, List<String> requiredSkills) {
         if (userSkills == null || requiredSkills == null || requiredSkills.isEmpty()) {
             return 0.0;
@@ -86,24 +240,10 @@ public class RecommendationEngine {
     }
 
     private double calculateExperienceMatch(String userExperience, String requiredExperience) {
-        if (userExperience == null || requiredExperience == null) {
-            return 0.0;
-        }
-        
-        Map<String, Integer> experienceLevels = Map.of(
-            "ENTRY", 1,
-            "MID", 2,
-            "SENIOR", 3
+        return calculateExperienceMatch(
+            FeatureEncoder.experienceOrdinal(userExperience),
+            FeatureEncoder.experienceOrdinal(requiredExperience)
         );
-
-        Integer userLevel = experienceLevels.get(userExperience.toUpperCase());
-        Integer requiredLevel = experienceLevels.get(requiredExperience.toUpperCase());
-
-        if (userLevel == null || requiredLevel == null) {
-            return 0.0;
-        }
-
-        return userLevel >= requiredLevel ? 1.0 : 0.0;
     }
 
     private double calculateSalaryMatch(Double expectedSalary, Double offeredSalary) {
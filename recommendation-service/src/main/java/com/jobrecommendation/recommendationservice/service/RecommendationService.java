@@ -1,113 +1,420 @@
 package com.jobrecommendation.recommendationservice.service;
 
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.JobFilter;
 import com.jobrecommendation.recommendationservice.model.JobRecommendation;
+import com.jobrecommendation.recommendationservice.model.RecommendationResult;
 import com.jobrecommendation.recommendationservice.model.UserProfile;
 import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.model.UserRecommendationList;
+import com.jobrecommendation.recommendationservice.model.UserRecommendations;
+import com.jobrecommendation.recommendationservice.repository.JobCatalog;
+import com.jobrecommendation.recommendationservice.repository.JobColumns;
+import com.jobrecommendation.recommendationservice.repository.UserProfileStore;
+import com.jobrecommendation.recommendationservice.repository.UserRecommendationStore;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class RecommendationService {
 
+    private static final String USER_RECOMMENDATIONS = "user-recommendations";
+    private static final String MATCHING_USERS = "matching-users";
+    private static final String TRUNCATED_REQUESTS = "recommendation.requests.truncated";
+
     private final RecommendationEngine recommendationEngine;
     private final RestTemplate restTemplate;
+    private final JobCatalog jobCatalog;
+    private final UserProfileStore userProfileStore;
+    private final FeatureEncoder featureEncoder;
+    private final ParallelScorer parallelScorer;
+    private final JobRanker jobRanker;
+    private final UserRecommendationStore userRecommendationStore;
+    private final WorkScheduler workScheduler;
+    private final RequestCoalescer requestCoalescer;
+    private final MeterRegistry meterRegistry;
+    /** Users ranked together per scan of the catalog snapshot by a batch request. */
+    @Value("${app.recommendations.batch.user-group:64}")
+    private final int batchUserGroup;
+    private final Set<String> refreshesInFlight = ConcurrentHashMap.newKeySet();
 
     public List<JobRecommendation> getRecommendationsForUser(String userId, int limit) {
-        // 1. Get user profile from User Service
+        return getRecommendationsForUser(userId, limit, false);
+    }
+
+    public List<JobRecommendation> getRecommendationsForUser(String userId, int limit, boolean explain) {
+        return getRecommendationsForUser(userId, limit, explain, JobFilter.NONE);
+    }
+
+    /**
+     * Concurrent calls with the same arguments share one computation and its result.
+     */
+    public List<JobRecommendation> getRecommendationsForUser(String userId, int limit, boolean explain,
+                                                             JobFilter filter) {
+        return requestCoalescer.execute(USER_RECOMMENDATIONS, new UserQuery(userId, limit, explain, filter, null),
+                () -> computeRecommendationsForUser(userId, limit, explain, filter, Deadline.NONE)).recommendations();
+    }
+
+    /**
+     * Recommendations within a latency budget. Once the budget has run out,
+     * ranking stops and the best jobs found so far are returned, flagged as
+     * incomplete and not stored; such computations are counted in
+     * {@code recommendation.requests.truncated}. Concurrent calls with the same
+     * arguments and budget share one computation.
+     */
+    public RecommendationResult getRecommendationsForUser(String userId, int limit, boolean explain,
+                                                          JobFilter filter, Duration budget) {
+        Deadline deadline = Deadline.after(budget);
+        return requestCoalescer.execute(USER_RECOMMENDATIONS, new UserQuery(userId, limit, explain, filter, budget),
+                () -> {
+                    RecommendationResult result = computeRecommendationsForUser(userId, limit, explain, filter,
+                            deadline);
+                    // Counted once per computation, however many callers share it
+                    if (!result.complete()) {
+                        meterRegistry.counter(TRUNCATED_REQUESTS).increment();
+                    }
+                    return result;
+                });
+    }
+
+    private RecommendationResult computeRecommendationsForUser(String userId, int limit, boolean explain,
+                                                               JobFilter filter, Deadline deadline) {
+        if (!filter.isEmpty()) {
+            return getFilteredRecommendationsForUser(userId, limit, explain, filter, deadline);
+        }
+
+        // 1. Serve the stored ranking, which job events keep up to date, without calling upstream
+        Optional<UserRecommendations> stored = userRecommendationStore.findByUserId(userId)
+                .filter(ranking -> ranking.canServe(limit) && isCurrentProfile(ranking.getUser()));
+        if (stored.isPresent()) {
+            // Stale entries are still served while they are recomputed in the background
+            if (userRecommendationStore.needsRefresh(stored.get())) {
+                refreshInBackground(userId);
+            }
+            return toResult(stored.get(), limit, explain);
+        }
+
+        // 2. Otherwise get the user profile and rank the whole catalog once
         UserProfile userProfile = getUserProfile(userId);
         if (userProfile == null) {
-            return Collections.emptyList();
+            return new RecommendationResult(Collections.emptyList(), true);
+        }
+        CompiledUserProfile compiledUser = userProfileStore.findCompiledById(userId)
+                .orElseGet(() -> featureEncoder.compile(userProfile));
+        return toResult(workScheduler.call(WorkPriority.INTERACTIVE, () -> rankJobs(compiledUser, limit, deadline)),
+                limit, explain);
+    }
+
+    private RecommendationResult getFilteredRecommendationsForUser(String userId, int limit, boolean explain,
+                                                                   JobFilter filter, Deadline deadline) {
+        // Filtered rankings are not stored; the filter is pushed down into the catalog buckets instead
+        UserProfile userProfile = getUserProfile(userId);
+        if (userProfile == null) {
+            return new RecommendationResult(Collections.emptyList(), true);
         }
+        CompiledUserProfile compiledUser = userProfileStore.findCompiledById(userId)
+                .orElseGet(() -> featureEncoder.compile(userProfile));
+        ensureJobCatalogInitialized();
+        return toResult(workScheduler.call(WorkPriority.INTERACTIVE,
+                () -> jobRanker.rank(compiledUser, limit, filter, deadline)), limit, explain);
+    }
+
+    private RecommendationResult toResult(UserRecommendations ranking, int limit, boolean explain) {
+        return new RecommendationResult(buildRecommendations(ranking, limit, explain), ranking.isComplete());
+    }
+
+    private List<JobRecommendation> buildRecommendations(UserRecommendations ranking, int limit, boolean explain) {
+        // Build recommendations for the best jobs that are still in the catalog
+        CompiledUserProfile compiledUser = ranking.getUser();
+        String[] jobIds = ranking.getJobIds();
+        List<JobRecommendation> recommendations = new ArrayList<>(Math.min(limit, jobIds.length));
+        for (int i = 0; i < jobIds.length && recommendations.size() < limit; i++) {
+            jobCatalog.findCompiledById(jobIds[i]).ifPresent(job ->
+                    recommendations.add(recommendationEngine.calculateJobMatch(compiledUser, job, explain)));
+        }
+        return recommendations;
+    }
+
+    /**
+     * Recommendations for many users against one catalog snapshot, handed to the
+     * sink one user at a time in request order. Users with a current stored
+     * ranking are served from it; the others are ranked together, a group of
+     * users per scan of the snapshot, and their rankings stored. Scans run as
+     * {@link WorkPriority#BULK} work. A user without a profile gets an empty list.
+     */
+    public void getRecommendationsForUsers(List<String> userIds, int limit, boolean explain,
+                                           Consumer<UserRecommendationList> sink) {
+        ensureJobCatalogInitialized();
+        long catalogVersion = jobCatalog.getVersion();
+        JobColumns jobs = jobCatalog.snapshot();
+        int capacity = Math.max(limit, userRecommendationStore.getStoredSize());
+
+        List<String> distinctUserIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        for (int from = 0; from < distinctUserIds.size(); from += batchUserGroup) {
+            List<String> group = distinctUserIds.subList(from, Math.min(distinctUserIds.size(), from + batchUserGroup));
+            Map<String, List<JobRecommendation>> recommendations = new HashMap<>();
+            List<CompiledUserProfile> toRank = new ArrayList<>();
+            for (String userId : group) {
+                // Stale rankings are re-ranked here rather than in the background, as the scan runs anyway
+                Optional<UserRecommendations> stored = userRecommendationStore.findByUserId(userId)
+                        .filter(ranking -> ranking.canServe(limit) && isCurrentProfile(ranking.getUser())
+                                && !userRecommendationStore.needsRefresh(ranking));
+                if (stored.isPresent()) {
+                    recommendations.put(userId, buildRecommendations(stored.get(), limit, explain));
+                    continue;
+                }
+                UserProfile userProfile = getUserProfile(userId);
+                if (userProfile == null) {
+                    recommendations.put(userId, Collections.emptyList());
+                } else {
+                    toRank.add(userProfileStore.findCompiledById(userId)
+                            .orElseGet(() -> featureEncoder.compile(userProfile)));
+                }
+            }
 
-        // 2. Get active job postings from Job Posting Service
-        List<JobPosting> activeJobs = getActiveJobPostings();
+            List<UserRecommendations> rankings = workScheduler.call(WorkPriority.BULK,
+                    () -> jobRanker.rankAll(toRank, capacity, jobs));
+            for (UserRecommendations ranking : rankings) {
+                userRecommendationStore.save(ranking);
+                // The snapshot predates a job event that may have patched the entry just replaced
+                if (jobCatalog.getVersion() != catalogVersion) {
+                    userRecommendationStore.invalidate(ranking.getUserId());
+                }
+                recommendations.put(ranking.getUserId(), buildRecommendations(ranking, limit, explain));
+            }
+            for (String userId : group) {
+                sink.accept(new UserRecommendationList(userId, recommendations.get(userId)));
+            }
+        }
+    }
 
-        // 3. Calculate recommendations
-        return activeJobs.stream()
-                .map(job -> recommendationEngine.calculateJobMatch(userProfile, job))
-                .sorted(Comparator.comparingDouble(JobRecommendation::getMatchScore).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+    private boolean isCurrentProfile(CompiledUserProfile compiledUser) {
+        return userProfileStore.findCompiledById(compiledUser.getUserId())
+                .map(current -> current == compiledUser)
+                .orElse(false);
+    }
+
+    private void refreshInBackground(String userId) {
+        if (!refreshesInFlight.add(userId)) {
+            return;
+        }
+        try {
+            workScheduler.executor(WorkPriority.UPDATE).execute(() -> {
+                try {
+                    rankJobsForUser(userId);
+                } catch (Exception e) {
+                    log.error("Error refreshing recommendations in background for userId: {}", userId, e);
+                } finally {
+                    refreshesInFlight.remove(userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshesInFlight.remove(userId);
+            log.warn("Background refresh queue full, keeping stale recommendations for userId: {}", userId);
+        }
+    }
+
+    private void rankJobsForUser(String userId) {
+        UserProfile userProfile = getUserProfile(userId);
+        if (userProfile == null) {
+            userRecommendationStore.invalidate(userId);
+            return;
+        }
+        rankJobs(userProfileStore.findCompiledById(userId).orElseGet(() -> featureEncoder.compile(userProfile)), 0,
+                Deadline.NONE);
+    }
+
+    private UserRecommendations rankJobs(CompiledUserProfile compiledUser, int limit, Deadline deadline) {
+        // Seeding the catalog moves its version, so read it only afterwards
+        ensureJobCatalogInitialized();
+        long catalogVersion = jobCatalog.getVersion();
+
+        // Keep the best jobs plus some headroom, so later reads and job events can be
+        // served from the stored ranking
+        int capacity = Math.max(limit, userRecommendationStore.getStoredSize());
+        UserRecommendations ranking = jobRanker.rank(compiledUser, capacity, JobFilter.NONE, deadline);
+        if (!ranking.isComplete()) {
+            return ranking;
+        }
+
+        // A job event applied while ranking may have patched the entry this save replaces,
+        // so drop it again if the catalog moved in the meantime
+        userRecommendationStore.save(ranking);
+        if (jobCatalog.getVersion() != catalogVersion) {
+            userRecommendationStore.invalidate(compiledUser.getUserId());
+        }
+        return ranking;
     }
 
     public List<JobRecommendation> getMatchingUsersForJob(String jobId, int limit) {
+        return getMatchingUsersForJob(jobId, limit, false);
+    }
+
+    public List<JobRecommendation> getMatchingUsersForJob(String jobId, int limit, boolean explain) {
+        return getMatchingUsersForJob(jobId, limit, explain, null);
+    }
+
+    /**
+     * Concurrent calls with the same arguments share one computation and its result.
+     *
+     * @param location when set, only users preferring this location are matched
+     */
+    public List<JobRecommendation> getMatchingUsersForJob(String jobId, int limit, boolean explain, String location) {
+        return requestCoalescer.execute(MATCHING_USERS, new JobQuery(jobId, limit, explain, location),
+                () -> computeMatchingUsersForJob(jobId, limit, explain, location));
+    }
+
+    private List<JobRecommendation> computeMatchingUsersForJob(String jobId, int limit, boolean explain,
+                                                               String location) {
         // 1. Get job posting details
-        JobPosting jobPosting = getJobPosting(jobId);
-        if (jobPosting == null) {
+        CompiledJobPosting compiledJob = getJobPosting(jobId);
+        if (compiledJob == null) {
             return Collections.emptyList();
         }
 
-        // 2. Get user profiles from User Service
-        List<UserProfile> userProfiles = getAllUserProfiles();
+        // 2. Get user profiles from the local profile store
+        List<CompiledUserProfile> userProfiles = getAllUserProfiles();
+        if (location != null) {
+            int locationId = featureEncoder.findLocationId(location);
+            userProfiles.removeIf(userProfile -> locationId < 0 || userProfile.getLocationId() != locationId);
+        }
+
+        // 3. Score every user, keep only the best ones and build matches for those
+        TopKSelector topK = workScheduler.call(WorkPriority.INTERACTIVE, () -> parallelScorer.selectTopK(
+                userProfiles.size(), limit, i -> recommendationEngine.calculateMatchScore(userProfiles.get(i), compiledJob)));
 
-        // 3. Calculate matches
-        return userProfiles.stream()
-                .map(user -> recommendationEngine.calculateJobMatch(user, jobPosting))
-                .sorted(Comparator.comparingDouble(JobRecommendation::getMatchScore).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        List<JobRecommendation> matches = new ArrayList<>(topK.size());
+        for (int index : topK.sortedIndices()) {
+            matches.add(recommendationEngine.calculateJobMatch(userProfiles.get(index), compiledJob, explain));
+        }
+        return matches;
     }
 
+    /**
+     * Re-ranks the catalog for the user on the calling thread; see
+     * {@link RefreshJobService} for running it as a throttled background job.
+     */
     public void refreshRecommendations(String userId) {
-        // Trigger a refresh of recommendations for a specific user
-        // This could involve recalculating scores, updating cache, etc.
+        // Re-rank the catalog and replace the stored ranking, which keeps being served meanwhile
         log.info("Refreshing recommendations for user: {}", userId);
-        getRecommendationsForUser(userId, 10); // Default to 10 recommendations
+        rankJobsForUser(userId);
     }
 
     private UserProfile getUserProfile(String userId) {
+        Optional<UserProfile> cached = userProfileStore.findById(userId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        // Profile not replicated yet, fall back to User Service
         try {
-            return restTemplate.getForObject(
+            UserProfile userProfile = restTemplate.getForObject(
                 "http://user-service/api/users/{userId}/profile",
                 UserProfile.class,
                 userId
             );
+            userProfileStore.upsert(userProfile);
+            return userProfile;
         } catch (Exception e) {
             log.error("Error fetching user profile for userId: {}", userId, e);
             return null;
         }
     }
 
-    private List<UserProfile> getAllUserProfiles() {
+    /**
+     * Seeds the job catalog and the profile store from the upstream services
+     * at startup, before the instance reports ready, unless a snapshot has
+     * already restored them. Requests then never pay for the bootstrap, and the
+     * state is complete enough to be snapshotted whichever endpoints are used.
+     * A failed bootstrap is retried by the first request that needs the store.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrapReplicas() {
+        ensureJobCatalogInitialized();
+        if (!userProfileStore.isInitialized()) {
+            bootstrapUserProfileStore();
+        }
+    }
+
+    private List<CompiledUserProfile> getAllUserProfiles() {
+        if (!userProfileStore.isInitialized()) {
+            bootstrapUserProfileStore();
+        }
+        return userProfileStore.findAllCompiled();
+    }
+
+    private synchronized void bootstrapUserProfileStore() {
+        if (userProfileStore.isInitialized()) {
+            return;
+        }
         try {
-            return Arrays.asList(restTemplate.getForObject(
+            userProfileStore.loadAll(Arrays.asList(restTemplate.getForObject(
                 "http://user-service/api/users/profiles",
                 UserProfile[].class
-            ));
+            )));
         } catch (Exception e) {
-            log.error("Error fetching user profiles", e);
-            return Collections.emptyList();
+            log.error("Error bootstrapping user profile store from user service", e);
         }
     }
 
-    private JobPosting getJobPosting(String jobId) {
+    private CompiledJobPosting getJobPosting(String jobId) {
+        Optional<CompiledJobPosting> cached = jobCatalog.findCompiledById(jobId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        // Not replicated yet (e.g. event still in flight), fall back to Job Posting Service
         try {
-            return restTemplate.getForObject(
+            JobPosting jobPosting = restTemplate.getForObject(
                 "http://job-posting-service/api/jobs/{jobId}",
                 JobPosting.class,
                 jobId
             );
+            jobCatalog.upsert(jobPosting);
+            return jobPosting == null ? null : featureEncoder.compile(jobPosting);
         } catch (Exception e) {
             log.error("Error fetching job posting for jobId: {}", jobId, e);
             return null;
         }
     }
 
-    private List<JobPosting> getActiveJobPostings() {
+    private void ensureJobCatalogInitialized() {
+        if (!jobCatalog.isInitialized()) {
+            bootstrapJobCatalog();
+        }
+    }
+
+    private synchronized void bootstrapJobCatalog() {
+        if (jobCatalog.isInitialized()) {
+            return;
+        }
         try {
-            return Arrays.asList(restTemplate.getForObject(
+            jobCatalog.loadAll(Arrays.asList(restTemplate.getForObject(
                 "http://job-posting-service/api/jobs",
                 JobPosting[].class
-            ));
+            )));
         } catch (Exception e) {
-            log.error("Error fetching active job postings", e);
-            return Collections.emptyList();
+            log.error("Error bootstrapping job catalog from job posting service", e);
         }
     }
+
+    private record UserQuery(String userId, int limit, boolean explain, JobFilter filter, Duration budget) {
+    }
+
+    private record JobQuery(String jobId, int limit, boolean explain, String location) {
+    }
 }
@@ -0,0 +1,86 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jobrecommendation.recommendationservice.model.RefreshJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs recommendation refreshes as {@link WorkPriority#BULK} work, so they are
+ * throttled by that lane and never delay interactive reads or job events. Jobs
+ * can be looked up by id until the retention period after their last change.
+ */
+@Service
+@Slf4j
+public class RefreshJobService {
+
+    private final RecommendationService recommendationService;
+    private final WorkScheduler workScheduler;
+    private final Cache<String, RefreshJob> jobs;
+    /** Id of the job still waiting to run, per user. */
+    private final ConcurrentMap<String, String> queuedJobIds = new ConcurrentHashMap<>();
+
+    public RefreshJobService(RecommendationService recommendationService,
+                             WorkScheduler workScheduler,
+                             @Value("${app.recommendations.refresh.job-retention:1h}") Duration retention) {
+        this.recommendationService = recommendationService;
+        this.workScheduler = workScheduler;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * Queues a refresh of the user's recommendations. A refresh of the same user
+     * that has not started yet already covers this one and is returned instead.
+     *
+     * @throws RejectedExecutionException when the bulk lane is full
+     */
+    public RefreshJob submit(String userId) {
+        String jobId = queuedJobIds.compute(userId, (key, queuedJobId) ->
+                queuedJobId != null && jobs.getIfPresent(queuedJobId) != null ? queuedJobId : enqueue(userId));
+        return jobs.getIfPresent(jobId);
+    }
+
+    public Optional<RefreshJob> findById(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    private String enqueue(String userId) {
+        RefreshJob job = RefreshJob.queued(UUID.randomUUID().toString(), userId, Instant.now());
+        jobs.put(job.id(), job);
+        try {
+            workScheduler.submit(WorkPriority.BULK, () -> {
+                run(job);
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.id());
+            throw e;
+        }
+        return job.id();
+    }
+
+    private void run(RefreshJob job) {
+        queuedJobIds.remove(job.userId(), job.id());
+        RefreshJob running = job.running(Instant.now());
+        jobs.put(job.id(), running);
+        try {
+            recommendationService.refreshRecommendations(job.userId());
+            jobs.put(job.id(), running.succeeded(Instant.now()));
+        } catch (Exception e) {
+            log.error("Refresh job {} failed for userId: {}", job.id(), job.userId(), e);
+            jobs.put(job.id(), running.failed(Instant.now(), e.getMessage()));
+        }
+    }
+}
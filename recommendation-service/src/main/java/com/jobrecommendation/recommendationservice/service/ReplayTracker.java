@@ -0,0 +1,143 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tracks how far the replicated state has consumed the {@code job-postings}
+ * and {@code user-profiles} topics. After a warm start, assigned partitions
+ * are rewound to the offsets the restored snapshot reflects, so the events
+ * since then are replayed; upserts are idempotent, so replaying more than
+ * needed is harmless. The service is ready once both topics have assigned
+ * partitions and every currently assigned partition has been consumed up to
+ * the end offset it had when it was assigned; a partition revoked or lost
+ * before catching up no longer holds readiness back.
+ */
+@Component
+@Slf4j
+public class ReplayTracker implements ConsumerAwareRebalanceListener {
+
+    static final Set<String> TOPICS = Set.of("job-postings", "user-profiles");
+
+    /** Per partition, the offset of the next record whose effect is not in the state yet. */
+    private final ConcurrentMap<TopicPartition, Long> positions = new ConcurrentHashMap<>();
+    /** Per currently assigned partition, the end offset it had when it was assigned. */
+    private final ConcurrentMap<TopicPartition, Long> replayTargets = new ConcurrentHashMap<>();
+    private volatile boolean restored;
+    private volatile long timeToReadyMillis = -1;
+
+    /**
+     * Resumes consumption from a restored snapshot's offsets rather than the
+     * group's committed ones. Partitions the snapshot has no offset for are
+     * read from the beginning.
+     */
+    public void restoredFrom(Map<TopicPartition, Long> offsets) {
+        positions.putAll(offsets);
+        restored = true;
+    }
+
+    /**
+     * Records that the record at {@code offset} has been applied to the state.
+     */
+    public void applied(String topic, int partition, long offset) {
+        positions.merge(new TopicPartition(topic, partition), offset + 1, Math::max);
+        if (!isReady()) {
+            checkReady();
+        }
+    }
+
+    public Map<TopicPartition, Long> getPositions() {
+        return new HashMap<>(positions);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            Long position = positions.get(partition);
+            if (position != null) {
+                consumer.seek(partition, position);
+            } else if (restored) {
+                // Created after the snapshot was written, so none of it is in the state
+                consumer.seekToBeginning(List.of(partition));
+            }
+        }
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+        for (TopicPartition partition : partitions) {
+            positions.merge(partition, consumer.position(partition), Math::max);
+            replayTargets.putIfAbsent(partition, endOffsets.getOrDefault(partition, 0L));
+        }
+        checkReady();
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        unassigned(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        unassigned(partitions);
+    }
+
+    /**
+     * Stops waiting for partitions this instance no longer consumes. Their
+     * positions are kept, so they resume from there if assigned again.
+     */
+    private void unassigned(Collection<TopicPartition> partitions) {
+        partitions.forEach(replayTargets::remove);
+        checkReady();
+    }
+
+    public boolean isReady() {
+        return timeToReadyMillis >= 0;
+    }
+
+    /**
+     * Time from JVM start until the state caught up with the topics, or -1 while it has not.
+     */
+    public long getTimeToReadyMillis() {
+        return timeToReadyMillis;
+    }
+
+    /**
+     * Records left to replay per assigned partition.
+     */
+    public Map<String, Long> getLag() {
+        Map<String, Long> lag = new HashMap<>();
+        replayTargets.forEach((partition, target) ->
+                lag.put(partition.toString(), Math.max(0, target - positions.getOrDefault(partition, 0L))));
+        return lag;
+    }
+
+    private synchronized void checkReady() {
+        if (isReady()) {
+            return;
+        }
+        Set<String> assignedTopics = new HashSet<>();
+        for (Map.Entry<TopicPartition, Long> target : replayTargets.entrySet()) {
+            if (positions.getOrDefault(target.getKey(), 0L) < target.getValue()) {
+                return;
+            }
+            assignedTopics.add(target.getKey().topic());
+        }
+        if (!assignedTopics.containsAll(TOPICS)) {
+            return;
+        }
+        timeToReadyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Caught up with {} {} ms after start ({})", TOPICS, timeToReadyMillis,
+                restored ? "warm start from snapshot" : "cold start");
+    }
+}
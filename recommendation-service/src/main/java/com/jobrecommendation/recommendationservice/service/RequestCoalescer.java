@@ -0,0 +1,86 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical requests: the first caller for a key
+ * computes, and callers arriving while that computation runs wait for it and
+ * receive the same result, or the same exception. Nothing is kept once the
+ * computation completes, so later callers compute afresh.
+ *
+ * <p>Callers are counted in {@code recommendation.requests}, tagged with the
+ * operation and whether they computed or were coalesced into another call.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final ConcurrentMap<Flight, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> computedCounters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> coalescedCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs the computation, or joins the one already running for the same
+     * operation and key. Joined callers share the result instance, which must
+     * therefore not be modified.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> computation) {
+        Flight flight = new Flight(operation, key);
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(flight, result);
+        if (running != null) {
+            counter(coalescedCounters, operation, "coalesced").increment();
+            return (T) join(running);
+        }
+
+        counter(computedCounters, operation, "computed").increment();
+        try {
+            T value = computation.get();
+            result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flight, result);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(ConcurrentMap<String, Counter> counters, String operation, String outcome) {
+        return counters.computeIfAbsent(operation, key -> Counter.builder("recommendation.requests")
+                .description("Recommendation requests, computed or coalesced into an identical one in flight")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private record Flight(String operation, Object key) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.JobBlock;
+
+import static com.jobrecommendation.recommendationservice.service.RecommendationEngine.COMPANY_WEIGHT;
+import static com.jobrecommendation.recommendationservice.service.RecommendationEngine.EXPERIENCE_WEIGHT;
+import static com.jobrecommendation.recommendationservice.service.RecommendationEngine.LOCATION_WEIGHT;
+import static com.jobrecommendation.recommendationservice.service.RecommendationEngine.SALARY_WEIGHT;
+import static com.jobrecommendation.recommendationservice.service.RecommendationEngine.SKILLS_WEIGHT;
+
+/**
+ * Scores a block one row at a time with the engine's own factor functions.
+ * Also scores the rows left over after the last full vector of {@link VectorBatchScorer}.
+ */
+final class ScalarBatchScorer implements BatchScorer {
+
+    static final ScalarBatchScorer INSTANCE = new ScalarBatchScorer();
+
+    private ScalarBatchScorer() {
+    }
+
+    @Override
+    public void score(CompiledUserProfile user, JobBlock block, double[] scores) {
+        score(user, block, 0, block.getSize(), scores);
+    }
+
+    void score(CompiledUserProfile user, JobBlock block, int from, int to, double[] scores) {
+        double[] skillMatches = block.getSkillMatches();
+        int[] locationIds = block.getLocationIds();
+        int[] experienceLevels = block.getExperienceLevels();
+        double[] salaries = block.getSalaries();
+        int[] companyIds = block.getCompanyIds();
+        for (int i = from; i < to; i++) {
+            scores[i] = (skillMatches[i] * SKILLS_WEIGHT) +
+                    (RecommendationEngine.calculateLocationMatch(user.getLocationId(), locationIds[i]) * LOCATION_WEIGHT) +
+                    (RecommendationEngine.calculateExperienceMatch(user.getExperienceLevel(), experienceLevels[i]) * EXPERIENCE_WEIGHT) +
+                    (RecommendationEngine.calculateSalaryMatch(user.getExpectedSalary(), salaries[i]) * SALARY_WEIGHT) +
+                    (RecommendationEngine.calculateCompanyMatch(user.getPreferredCompanyIds(), companyIds[i]) * COMPANY_WEIGHT);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Global dictionary of skill names shared by every encoded profile and job.
+ */
+@Component
+public class SkillDictionary extends TermDictionary {
+}
@@ -0,0 +1,113 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.StateSnapshot;
+import com.jobrecommendation.recommendationservice.model.UserProfile;
+import com.jobrecommendation.recommendationservice.repository.JobCatalog;
+import com.jobrecommendation.recommendationservice.repository.StateSnapshotStore;
+import com.jobrecommendation.recommendationservice.repository.UserProfileStore;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Periodically writes the job catalog and profile store to a snapshot along
+ * with the offsets they reflect, and restores them from it on startup, before
+ * the listeners start consuming, so a restart replays the topics from there
+ * instead of fetching everything from the upstream services.
+ */
+@Component
+@Slf4j
+public class StateSnapshotter {
+
+    private final StateSnapshotStore stateSnapshotStore;
+    private final JobCatalog jobCatalog;
+    private final UserProfileStore userProfileStore;
+    private final SkillDictionary skillDictionary;
+    private final FeatureEncoder featureEncoder;
+    private final ReplayTracker replayTracker;
+    private final boolean enabled;
+
+    public StateSnapshotter(StateSnapshotStore stateSnapshotStore, JobCatalog jobCatalog,
+                            UserProfileStore userProfileStore, SkillDictionary skillDictionary,
+                            FeatureEncoder featureEncoder, ReplayTracker replayTracker,
+                            @Value("${app.snapshot.enabled:true}") boolean enabled) {
+        this.stateSnapshotStore = stateSnapshotStore;
+        this.jobCatalog = jobCatalog;
+        this.userProfileStore = userProfileStore;
+        this.skillDictionary = skillDictionary;
+        this.featureEncoder = featureEncoder;
+        this.replayTracker = replayTracker;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            Optional<StateSnapshot> snapshot = stateSnapshotStore.read();
+            if (snapshot.isEmpty()) {
+                log.info("No state snapshot found, starting cold");
+                return;
+            }
+            restore(snapshot.get());
+            log.info("Restored {} jobs and {} profiles from state snapshot in {} ms", jobCatalog.size(),
+                    userProfileStore.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Could not restore state snapshot, starting cold", e);
+        }
+    }
+
+    /**
+     * Writes a snapshot once both stores have been bootstrapped, which
+     * {@link RecommendationService#bootstrapReplicas()} does at startup. Before
+     * that the state need not cover what came before the offsets: a cold start
+     * of an instance whose group has committed offsets resumes from them, and
+     * only the REST bootstrap brings in the jobs and profiles published earlier.
+     * A new group reads the topics from the beginning.
+     */
+    @Scheduled(initialDelayString = "${app.snapshot.interval:PT5M}", fixedDelayString = "${app.snapshot.interval:PT5M}")
+    public void snapshot() {
+        if (!enabled || !jobCatalog.isInitialized() || !userProfileStore.isInitialized()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            StateSnapshot snapshot = capture();
+            stateSnapshotStore.write(snapshot);
+            log.info("Wrote state snapshot of {} jobs and {} profiles in {} ms", snapshot.getJobs().size(),
+                    snapshot.getProfiles().size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Error writing state snapshot", e);
+        }
+    }
+
+    StateSnapshot capture() {
+        // Offsets first: everything before them is in the state read next, and replaying later events is idempotent
+        Map<TopicPartition, Long> offsets = replayTracker.getPositions();
+        List<CompiledJobPosting> jobs = jobCatalog.findAllCompiled();
+        List<UserProfile> profiles = userProfileStore.findAll();
+        // Dictionaries last, so they hold every id the jobs above were compiled to
+        return new StateSnapshot(offsets, skillDictionary.terms(), featureEncoder.getLocationDictionary().terms(),
+                featureEncoder.getCompanyDictionary().terms(), jobs, profiles);
+    }
+
+    void restore(StateSnapshot snapshot) {
+        skillDictionary.restore(snapshot.getSkillTerms());
+        featureEncoder.getLocationDictionary().restore(snapshot.getLocationTerms());
+        featureEncoder.getCompanyDictionary().restore(snapshot.getCompanyTerms());
+        jobCatalog.loadAllCompiled(snapshot.getJobs());
+        userProfileStore.loadAll(snapshot.getProfiles());
+        replayTracker.restoredFrom(snapshot.getOffsets());
+    }
+}
@@ -0,0 +1,134 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dictionary of canonical (lower-cased) terms to dense int ids. Profiles and
+ * jobs are encoded once into ids or sorted, de-duplicated id arrays so that
+ * scoring compares ints instead of strings.
+ */
+public class TermDictionary {
+
+    private static final int[] NO_TERMS = new int[0];
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    public int idOf(String term) {
+        return ids.computeIfAbsent(canonicalize(term), key -> nextId.getAndIncrement());
+    }
+
+    /**
+     * Id of the term, or -1 for a null term.
+     */
+    public int idOrAbsent(String term) {
+        return term == null ? -1 : idOf(term);
+    }
+
+    /**
+     * Id of a known term, or -1 for a null or unknown term. Unlike
+     * {@link #idOf(String)} this never adds the term.
+     */
+    public int find(String term) {
+        if (term == null) {
+            return -1;
+        }
+        Integer id = ids.get(canonicalize(term));
+        return id == null ? -1 : id;
+    }
+
+    public int[] encode(Collection<String> terms) {
+        if (terms == null || terms.isEmpty()) {
+            return NO_TERMS;
+        }
+
+        int[] encoded = new int[terms.size()];
+        int count = 0;
+        for (String term : terms) {
+            if (term != null) {
+                encoded[count++] = idOf(term);
+            }
+        }
+        Arrays.sort(encoded, 0, count);
+
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || encoded[i] != encoded[distinct - 1]) {
+                encoded[distinct++] = encoded[i];
+            }
+        }
+        return distinct == encoded.length ? encoded : Arrays.copyOf(encoded, distinct);
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Terms indexed by their id. An id being handed out concurrently may still
+     * show up as null.
+     */
+    public List<String> terms() {
+        String[] terms = new String[nextId.get()];
+        ids.forEach((term, id) -> {
+            if (id < terms.length) {
+                terms[id] = term;
+            }
+        });
+        return Arrays.asList(terms);
+    }
+
+    /**
+     * Gives an empty dictionary the ids listed by {@link #terms()}, so that data
+     * encoded against those ids stays valid.
+     */
+    public synchronized void restore(List<String> terms) {
+        if (!ids.isEmpty()) {
+            throw new IllegalStateException("Only an empty dictionary can be restored");
+        }
+        for (int id = 0; id < terms.size(); id++) {
+            if (terms.get(id) != null) {
+                ids.put(terms.get(id), id);
+            }
+        }
+        nextId.set(terms.size());
+    }
+
+    /**
+     * Number of ids present in both sorted, de-duplicated arrays.
+     */
+    public static int countCommon(int[] first, int[] second) {
+        return countCommon(first, second, 0, second.length);
+    }
+
+    /**
+     * Number of ids present in both {@code first} and {@code second[from, to)},
+     * both sorted and de-duplicated.
+     */
+    public static int countCommon(int[] first, int[] second, int from, int to) {
+        int i = 0;
+        int j = from;
+        int common = 0;
+        while (i < first.length && j < to) {
+            if (first[i] == second[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (first[i] < second[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return common;
+    }
+
+    private static String canonicalize(String term) {
+        return term.toLowerCase();
+    }
+}
@@ -0,0 +1,152 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Keeps the {@code capacity} best (index, score) pairs seen so far in a bounded
+ * min-heap of primitives, so ranking a large candidate list needs no per-candidate
+ * allocation. Ties on score are broken by the lower index, which gives the same
+ * order as a stable descending sort over the candidate list, unless a
+ * tie-breaker defining another order between indices is given. The heap
+ * grows as candidates arrive, so a capacity far above the candidate count
+ * costs nothing.
+ */
+public final class TopKSelector {
+
+    private static final int INITIAL_LENGTH = 16;
+
+    private final int capacity;
+    private int[] indices;
+    private double[] scores;
+    private final IntBinaryOperator tieBreaker;
+    private int size;
+
+    public TopKSelector(int capacity) {
+        this(capacity, Integer::compare);
+    }
+
+    /**
+     * @param tieBreaker compares two indices with equal scores; the one ordered first wins
+     */
+    public TopKSelector(int capacity, IntBinaryOperator tieBreaker) {
+        this.capacity = Math.max(0, capacity);
+        this.indices = new int[Math.min(this.capacity, INITIAL_LENGTH)];
+        this.scores = new double[indices.length];
+        this.tieBreaker = tieBreaker;
+    }
+
+    public boolean offer(int index, double score) {
+        if (size < capacity) {
+            if (size == indices.length) {
+                grow();
+            }
+            indices[size] = index;
+            scores[size] = score;
+            siftUp(size++);
+            return true;
+        }
+        if (capacity == 0 || !isBetter(score, index, scores[0], indices[0], tieBreaker)) {
+            return false;
+        }
+        indices[0] = index;
+        scores[0] = score;
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * Merges another selection, e.g. a partial result of a parallel scan, into this one.
+     */
+    public void offerAll(TopKSelector other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.indices[i], other.scores[i]);
+        }
+    }
+
+    /**
+     * Score a candidate has to beat to enter the selection, or negative infinity
+     * while the selection is not full yet.
+     */
+    public double threshold() {
+        return isFull() ? scores[0] : Double.NEGATIVE_INFINITY;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the selected indices ordered by descending score.
+     */
+    public int[] sortedIndices() {
+        int[] heapIndices = indices.clone();
+        double[] heapScores = scores.clone();
+        int[] result = new int[size];
+        for (int remaining = size; remaining > 0; remaining--) {
+            result[remaining - 1] = heapIndices[0];
+            heapIndices[0] = heapIndices[remaining - 1];
+            heapScores[0] = heapScores[remaining - 1];
+            siftDown(heapIndices, heapScores, remaining - 1, 0, tieBreaker);
+        }
+        return result;
+    }
+
+    private void grow() {
+        int length = (int) Math.min(capacity, 2L * indices.length);
+        indices = Arrays.copyOf(indices, length);
+        scores = Arrays.copyOf(scores, length);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!isBetter(scores[parent], indices[parent], scores[position], indices[position], tieBreaker)) {
+                break;
+            }
+            swap(indices, scores, parent, position);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        siftDown(indices, scores, size, position, tieBreaker);
+    }
+
+    private static void siftDown(int[] indices, double[] scores, int size, int position, IntBinaryOperator tieBreaker) {
+        while (true) {
+            int worst = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && isBetter(scores[worst], indices[worst], scores[left], indices[left], tieBreaker)) {
+                worst = left;
+            }
+            if (right < size && isBetter(scores[worst], indices[worst], scores[right], indices[right], tieBreaker)) {
+                worst = right;
+            }
+            if (worst == position) {
+                return;
+            }
+            swap(indices, scores, worst, position);
+            position = worst;
+        }
+    }
+
+    private static boolean isBetter(double score, int index, double otherScore, int otherIndex,
+                                    IntBinaryOperator tieBreaker) {
+        return score > otherScore || (score == otherScore && tieBreaker.applyAsInt(index, otherIndex) < 0);
+    }
+
+    private static void swap(int[] indices, double[] scores, int i, int j) {
+        int index = indices[i];
+        indices[i] = indices[j];
+        indices[j] = index;
+        double score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+}
@@ -0,0 +1,42 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.UserProfile;
+import com.jobrecommendation.recommendationservice.repository.UserProfileStore;
+import com.jobrecommendation.recommendationservice.repository.UserRecommendationStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserProfileListener {
+
+    private final UserProfileStore userProfileStore;
+    private final UserRecommendationStore userRecommendationStore;
+    private final ReplayTracker replayTracker;
+
+    // A group per instance, so every instance replicates all profiles
+    @KafkaListener(topics = "user-profiles", groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "userProfileListenerContainerFactory")
+    public void handleUserProfile(@Payload(required = false) UserProfile userProfile,
+                                  @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                  @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                  @Header(KafkaHeaders.OFFSET) long offset) {
+        if (userProfile == null || userProfile.getId() == null) {
+            // Tombstones and payloads without an id carry nothing to apply, but still count as consumed
+            log.warn("Skipping user profile event without a profile id at {}-{}@{}", topic, partition, offset);
+            replayTracker.applied(topic, partition, offset);
+            return;
+        }
+        log.info("Received user profile event: {}", userProfile.getId());
+        userProfileStore.upsert(userProfile);
+        replayTracker.applied(topic, partition, offset);
+        // The stored ranking was scored against the previous profile
+        userRecommendationStore.invalidate(userProfile.getId());
+    }
+}
@@ -0,0 +1,99 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.repository.JobColumns;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Inverted index from skill id to the users of a group having that skill. The
+ * skills a job shares with every user of the group then take one lookup per
+ * required skill, instead of one sorted merge per user. Skill ids are kept in
+ * an open-addressing table over the group's distinct skills, so its size does
+ * not depend on the size of the dictionary.
+ */
+final class UserSkillIndex {
+
+    private static final int EMPTY = -1;
+
+    private final int[] keys;
+    /** Users having the skill of slot {@code s} are {@code users[starts[s], starts[s + 1])}. */
+    private final int[] starts;
+    private final int[] users;
+    private final int mask;
+
+    UserSkillIndex(List<CompiledUserProfile> group) {
+        int total = 0;
+        for (CompiledUserProfile user : group) {
+            total += user.getSkillIds().length;
+        }
+        int tableSize = Integer.highestOneBit(Math.max(2, total * 2 - 1)) << 1;
+        keys = new int[tableSize];
+        Arrays.fill(keys, EMPTY);
+        mask = tableSize - 1;
+
+        int[] counts = new int[tableSize];
+        for (CompiledUserProfile user : group) {
+            for (int skillId : user.getSkillIds()) {
+                counts[insert(skillId)]++;
+            }
+        }
+        starts = new int[tableSize + 1];
+        for (int slot = 0; slot < tableSize; slot++) {
+            starts[slot + 1] = starts[slot] + counts[slot];
+        }
+        users = new int[total];
+        for (int u = 0; u < group.size(); u++) {
+            for (int skillId : group.get(u).getSkillIds()) {
+                int slot = find(skillId);
+                users[starts[slot + 1] - counts[slot]--] = u;
+            }
+        }
+    }
+
+    /**
+     * Adds, for every user {@code u} of the group and row {@code r} in
+     * {@code [from, to)}, the number of skills they share to
+     * {@code commonSkills[u * stride + r - from]}.
+     */
+    void countCommonSkills(JobColumns jobs, int from, int to, int[] commonSkills, int stride) {
+        for (int row = from; row < to; row++) {
+            int skillCount = jobs.skillCount(row);
+            for (int index = 0; index < skillCount; index++) {
+                int slot = find(jobs.skillId(row, index));
+                if (slot == EMPTY) {
+                    continue;
+                }
+                for (int i = starts[slot]; i < starts[slot + 1]; i++) {
+                    commonSkills[users[i] * stride + row - from]++;
+                }
+            }
+        }
+    }
+
+    private int insert(int skillId) {
+        int slot = hash(skillId) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != skillId) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = skillId;
+        return slot;
+    }
+
+    private int find(int skillId) {
+        int slot = hash(skillId) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == skillId) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    private static int hash(int skillId) {
+        int h = skillId * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,107 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.JobBlock;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import static com.jobrecommendation.recommendationservice.service.RecommendationEngine.COMPANY_WEIGHT;
+import static com.jobrecommendation.recommendationservice.service.RecommendationEngine.EXPERIENCE_WEIGHT;
+import static com.jobrecommendation.recommendationservice.service.RecommendationEngine.LOCATION_WEIGHT;
+import static com.jobrecommendation.recommendationservice.service.RecommendationEngine.SALARY_WEIGHT;
+import static com.jobrecommendation.recommendationservice.service.RecommendationEngine.SKILLS_WEIGHT;
+
+/**
+ * Scores a block with {@code jdk.incubator.vector} lanes: the location,
+ * experience, salary and company factors of several rows are computed from
+ * lane-wise comparisons, then weighted and summed in the scalar order. Lane-wise
+ * double arithmetic is the scalar IEEE arithmetic, so the scores are the same.
+ *
+ * <p>Only loaded when the incubator module is present, see {@link BatchScorer#best()}.
+ */
+final class VectorBatchScorer implements BatchScorer {
+
+    static final VectorBatchScorer INSTANCE = new VectorBatchScorer();
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    /** As many int lanes as there are double lanes, so int lanes convert to double lanes one for one. */
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class,
+            VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    /** Matches no id: ids are non-negative and absent ones are -1. */
+    private static final int NO_ID = Integer.MIN_VALUE;
+    private static final IntVector INT_ZEROS = IntVector.zero(INTS);
+    private static final DoubleVector NEUTRAL_COMPANY = DoubleVector.broadcast(DOUBLES, 0.5);
+
+    private VectorBatchScorer() {
+    }
+
+    @Override
+    public void score(CompiledUserProfile user, JobBlock block, double[] scores) {
+        double[] skillMatches = block.getSkillMatches();
+        int[] locationIds = block.getLocationIds();
+        int[] experienceLevels = block.getExperienceLevels();
+        double[] salaries = block.getSalaries();
+        int[] companyIds = block.getCompanyIds();
+        // Per-user cases are folded into the operands rather than branched on, since
+        // vectors merged across branches are boxed by the JIT
+        int locationKey = user.getLocationId() >= 0 ? user.getLocationId() : NO_ID;
+        // Unknown user level (0): no required level is both non-zero and at most 0
+        int userLevel = user.getExperienceLevel();
+        double expectedSalary = user.getExpectedSalary();
+        int bound = DOUBLES.loopBound(block.getSize());
+
+        // Company matches go to the scores first, one pass per preferred company
+        for (int i = 0; i < bound; i += DOUBLES.length()) {
+            NEUTRAL_COMPANY.intoArray(scores, i);
+        }
+        // Preferred ids are never negative, so jobs without company never match
+        for (int companyId : user.getPreferredCompanyIds()) {
+            for (int i = 0; i < bound; i += DOUBLES.length()) {
+                DoubleVector.fromArray(DOUBLES, scores, i)
+                        .max(indicator(IntVector.fromArray(INTS, companyIds, i).eq(companyId)))
+                        .intoArray(scores, i);
+            }
+        }
+
+        int i = 0;
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector locationMatch = indicator(IntVector.fromArray(INTS, locationIds, i).eq(locationKey));
+
+            IntVector required = IntVector.fromArray(INTS, experienceLevels, i);
+            DoubleVector experienceMatch = indicator(required.compare(VectorOperators.NE, 0)
+                    .and(required.compare(VectorOperators.LE, userLevel)));
+
+            // A missing salary on either side makes the ratio NaN; an offer meeting the
+            // expectation scores 1 even when the ratio is NaN (0 / 0) or above 1
+            DoubleVector offered = DoubleVector.fromArray(DOUBLES, salaries, i);
+            DoubleVector ratio = offered.div(expectedSalary);
+            DoubleVector salaryMatch = ratio.min(1.0).max(0.0)
+                    .blend(0.0, ratio.test(VectorOperators.IS_NAN))
+                    .blend(1.0, offered.compare(VectorOperators.GE, expectedSalary));
+
+            DoubleVector companyMatch = DoubleVector.fromArray(DOUBLES, scores, i);
+
+            DoubleVector.fromArray(DOUBLES, skillMatches, i).mul(SKILLS_WEIGHT)
+                    .add(locationMatch.mul(LOCATION_WEIGHT))
+                    .add(experienceMatch.mul(EXPERIENCE_WEIGHT))
+                    .add(salaryMatch.mul(SALARY_WEIGHT))
+                    .add(companyMatch.mul(COMPANY_WEIGHT))
+                    .intoArray(scores, i);
+        }
+        ScalarBatchScorer.INSTANCE.score(user, block, i, block.getSize(), scores);
+    }
+
+    /**
+     * 1.0 in the lanes set in the mask, 0.0 elsewhere. Goes through an int
+     * vector because JDK 17 does not intrinsify mask casts between lane sizes,
+     * while it does lane conversions.
+     */
+    private static DoubleVector indicator(VectorMask<Integer> mask) {
+        return (DoubleVector) INT_ZEROS.blend(1, mask).convertShape(VectorOperators.I2D, DOUBLES, 0);
+    }
+}
@@ -0,0 +1,25 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Out of service until the replicated state has caught up with the event
+ * streams, so traffic is only routed to an instance that serves current data.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmStartHealthIndicator implements HealthIndicator {
+
+    private final ReplayTracker replayTracker;
+
+    @Override
+    public Health health() {
+        if (replayTracker.isReady()) {
+            return Health.up().withDetail("timeToReadyMs", replayTracker.getTimeToReadyMillis()).build();
+        }
+        return Health.outOfService().withDetail("lag", replayTracker.getLag()).build();
+    }
+}
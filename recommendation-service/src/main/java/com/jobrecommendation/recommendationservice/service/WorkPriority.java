@@ -0,0 +1,13 @@
+package com.jobrecommendation.recommendationservice.service;
+
+/**
+ * Classes of ranking work, highest priority first.
+ */
+public enum WorkPriority {
+    /** Rankings a request is waiting for. */
+    INTERACTIVE,
+    /** Recomputation triggered by events or stale stored rankings. */
+    UPDATE,
+    /** Refresh jobs and batch rankings nobody is waiting on interactively. */
+    BULK
+}
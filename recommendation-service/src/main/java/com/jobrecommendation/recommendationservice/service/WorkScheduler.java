@@ -0,0 +1,277 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs ranking work of every {@link WorkPriority} on one pool of workers, so
+ * the classes share the cores instead of each owning threads. Whenever a
+ * worker frees up it takes the highest-priority task waiting, oldest first;
+ * running tasks are never preempted.
+ *
+ * <p>Each priority has its own lane with a bounded number of waiting tasks,
+ * beyond which submissions are rejected, and a limit on the tasks handed to
+ * the workers at once, which throttles lower-priority work. Update and bulk
+ * work together never hold more than all workers but one, so an interactive
+ * read always finds a free worker; with a single worker, background tasks
+ * still run, one at a time.
+ *
+ * <p>Per priority, {@code recommendation.work.queued} gauges the waiting
+ * tasks and {@code recommendation.work.wait} times how long tasks waited.
+ */
+public class WorkScheduler {
+
+    /**
+     * @param queueCapacity waiting tasks beyond which submissions are rejected
+     * @param maxRunning    tasks handed to the workers at once
+     */
+    public record Lane(int queueCapacity, int maxRunning) {
+    }
+
+    private final ThreadPoolExecutor workers;
+    private final Map<WorkPriority, LaneState> lanes = new EnumMap<>(WorkPriority.class);
+    private final AtomicLong sequence = new AtomicLong();
+    /** Workers the update and bulk lanes may hold at once. */
+    private final int backgroundLimit;
+    private final AtomicInteger backgroundRunning = new AtomicInteger();
+
+    public WorkScheduler(int threads, Map<WorkPriority, Lane> laneLimits, MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        backgroundLimit = Math.max(1, threads - 1);
+        workers = new ThreadPoolExecutor(
+            threads,
+            threads,
+            60,
+            TimeUnit.SECONDS,
+            new PriorityBlockingQueue<>(64, Comparator.comparing(runnable -> (Task) runnable)),
+            runnable -> {
+                Thread thread = new Thread(runnable, "recommendation-worker-" + threadCount.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        workers.prestartAllCoreThreads();
+        for (WorkPriority priority : WorkPriority.values()) {
+            Lane limits = laneLimits.getOrDefault(priority, new Lane(Integer.MAX_VALUE, threads));
+            LaneState lane = new LaneState(priority, limits, Timer.builder("recommendation.work.wait")
+                    .description("Time ranking work waited for a worker")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+            Gauge.builder("recommendation.work.queued", lane.waiting, AtomicInteger::get)
+                    .description("Ranking work waiting for a worker")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry);
+            lanes.put(priority, lane);
+        }
+    }
+
+    /**
+     * Queues the work at the given priority.
+     *
+     * @throws RejectedExecutionException when the lane of that priority is full
+     */
+    public <T> CompletableFuture<T> submit(WorkPriority priority, Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        lanes.get(priority).enqueue(new Task(priority, sequence.getAndIncrement(), System.nanoTime(), result, () -> {
+            try {
+                result.complete(work.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }));
+        return result;
+    }
+
+    /**
+     * Runs the work at the given priority and waits for its result. Exceptions
+     * thrown by the work are rethrown as they are.
+     *
+     * @throws RejectedExecutionException when the lane of that priority is full
+     */
+    public <T> T call(WorkPriority priority, Supplier<T> work) {
+        try {
+            return submit(priority, work).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The lane of the given priority as an {@link Executor}; {@code execute}
+     * throws {@link RejectedExecutionException} when the lane is full.
+     */
+    public Executor executor(WorkPriority priority) {
+        return runnable -> submit(priority, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    public int queued(WorkPriority priority) {
+        return lanes.get(priority).waiting.get();
+    }
+
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private final class LaneState {
+
+        private final WorkPriority priority;
+        private final Lane limits;
+        private final Timer waitTimer;
+        private final AtomicInteger waiting = new AtomicInteger();
+        /** Tasks held back by the running limit; guarded by this. */
+        private final Queue<Task> held = new ArrayDeque<>();
+        /** Tasks handed to the workers and not finished; guarded by this. */
+        private int dispatched;
+
+        private LaneState(WorkPriority priority, Lane limits, Timer waitTimer) {
+            this.priority = priority;
+            this.limits = limits;
+            this.waitTimer = waitTimer;
+        }
+
+        private void enqueue(Task task) {
+            synchronized (this) {
+                if (workers.isShutdown()) {
+                    throw new RejectedExecutionException("Work scheduler is shut down");
+                }
+                if (waiting.get() >= limits.queueCapacity()) {
+                    throw new RejectedExecutionException("Work queue full for priority " + priority);
+                }
+                waiting.incrementAndGet();
+                held.add(task);
+            }
+            dispatch();
+        }
+
+        private void dispatch() {
+            while (true) {
+                Task task;
+                synchronized (this) {
+                    if (dispatched >= limits.maxRunning() || held.isEmpty() || !acquireWorker()) {
+                        return;
+                    }
+                    task = held.poll();
+                    dispatched++;
+                }
+                try {
+                    workers.execute(task);
+                } catch (RejectedExecutionException e) {
+                    // Shut down since the task was queued, so it will never run
+                    synchronized (this) {
+                        dispatched--;
+                    }
+                    releaseWorker();
+                    waiting.decrementAndGet();
+                    task.result.completeExceptionally(e);
+                }
+            }
+        }
+
+        private void started(Task task) {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - task.submittedAt, TimeUnit.NANOSECONDS);
+        }
+
+        private void finished() {
+            synchronized (this) {
+                dispatched--;
+            }
+            if (releaseWorker()) {
+                // The freed worker may go to either background lane, update first
+                lanes.values().stream().filter(LaneState::isBackground).forEach(LaneState::dispatch);
+            } else {
+                dispatch();
+            }
+        }
+
+        private boolean isBackground() {
+            return priority != WorkPriority.INTERACTIVE;
+        }
+
+        /** Takes a worker from the background budget if this lane needs one; false when none is left. */
+        private boolean acquireWorker() {
+            if (!isBackground()) {
+                return true;
+            }
+            while (true) {
+                int running = backgroundRunning.get();
+                if (running >= backgroundLimit) {
+                    return false;
+                }
+                if (backgroundRunning.compareAndSet(running, running + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /** Returns a worker to the background budget; true if this lane had taken it from there. */
+        private boolean releaseWorker() {
+            if (!isBackground()) {
+                return false;
+            }
+            backgroundRunning.decrementAndGet();
+            return true;
+        }
+    }
+
+    private final class Task implements Runnable, Comparable<Task> {
+
+        private final WorkPriority priority;
+        private final long sequence;
+        private final long submittedAt;
+        private final CompletableFuture<?> result;
+        private final Runnable work;
+
+        private Task(WorkPriority priority, long sequence, long submittedAt, CompletableFuture<?> result,
+                     Runnable work) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.submittedAt = submittedAt;
+            this.result = result;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            LaneState lane = lanes.get(priority);
+            lane.started(this);
+            try {
+                work.run();
+            } finally {
+                lane.finished();
+            }
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
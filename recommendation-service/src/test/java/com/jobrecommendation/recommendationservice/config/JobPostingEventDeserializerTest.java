@@ -0,0 +1,67 @@
+package com.jobrecommendation.recommendationservice.config;
+
+import com.jobrecommendation.recommendationservice.model.JobPostingEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobPostingEventDeserializerTest {
+
+    private final JobPostingEventDeserializer deserializer = new JobPostingEventDeserializer();
+
+    @Test
+    void deserialize_ReadsEnvelope() {
+        JobPostingEvent event = deserialize("""
+                {"type": "DEACTIVATED", "version": 1, "jobId": "1", "occurredAt": "2024-05-01T10:15:30Z",
+                 "jobPosting": {"id": "1", "title": "Java Developer", "isActive": false,
+                                "postedDate": "2024-04-01T09:00:00"}}""");
+
+        assertEquals(JobPostingEvent.Type.DEACTIVATED, event.type());
+        assertEquals(1, event.version());
+        assertEquals("1", event.jobId());
+        assertEquals(Instant.parse("2024-05-01T10:15:30Z"), event.occurredAt());
+        assertEquals("Java Developer", event.jobPosting().getTitle());
+        assertEquals(LocalDateTime.of(2024, 4, 1, 9, 0), event.jobPosting().getPostedDate());
+    }
+
+    @Test
+    void deserialize_ReadsProducerWireFormat() throws IOException {
+        // Byte-for-byte what job-posting-service's JsonSerializer writes: Instant as
+        // epoch seconds with nanos, LocalDateTime as an array (see its JobPostingEventTest).
+        JobPostingEvent event;
+        try (InputStream in = getClass().getResourceAsStream("/job-posting-event-v1.json")) {
+            event = deserializer.deserialize("job-postings", in.readAllBytes());
+        }
+
+        assertEquals(JobPostingEvent.Type.DEACTIVATED, event.type());
+        assertEquals(JobPostingEvent.VERSION, event.version());
+        assertEquals("job-1", event.jobId());
+        assertEquals(Instant.parse("2024-05-01T10:15:30.123Z"), event.occurredAt());
+        assertEquals("job-1", event.jobPosting().getId());
+        assertEquals(List.of("Java", "Spring"), event.jobPosting().getRequiredSkills());
+        assertEquals(LocalDateTime.of(2024, 4, 1, 9, 0), event.jobPosting().getPostedDate());
+        assertFalse(event.jobPosting().getIsActive());
+    }
+
+    @Test
+    void deserialize_WrapsBareJobDocument() {
+        JobPostingEvent event = deserialize("""
+                {"id": "2", "title": "Python Developer", "isActive": true, "requiredSkills": ["Python"]}""");
+
+        assertEquals(JobPostingEvent.Type.UPDATED, event.type());
+        assertEquals(0, event.version());
+        assertEquals("2", event.jobId());
+        assertEquals("Python Developer", event.jobPosting().getTitle());
+    }
+
+    private JobPostingEvent deserialize(String json) {
+        return deserializer.deserialize("job-postings", json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,7 +1,13 @@
 package com.jobrecommendation.recommendationservice.controller;
 
+import com.jobrecommendation.recommendationservice.model.JobFilter;
 import com.jobrecommendation.recommendationservice.model.JobRecommendation;
+import com.jobrecommendation.recommendationservice.model.MatchFactors;
+import com.jobrecommendation.recommendationservice.model.RecommendationResult;
+import com.jobrecommendation.recommendationservice.model.RefreshJob;
+import com.jobrecommendation.recommendationservice.model.UserRecommendationList;
 import com.jobrecommendation.recommendationservice.service.RecommendationService;
+import com.jobrecommendation.recommendationservice.service.RefreshJobService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,17 +15,35 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(RecommendationController.class)
@@ -31,6 +55,9 @@ class RecommendationControllerTest {
     @MockBean
     private RecommendationService recommendationService;
 
+    @MockBean
+    private RefreshJobService refreshJobService;
+
     private JobRecommendation testRecommendation;
 
     @BeforeEach
@@ -39,18 +66,12 @@ class RecommendationControllerTest {
         testRecommendation.setUserId("1");
         testRecommendation.setJobId("1");
         testRecommendation.setMatchScore(0.85);
-        testRecommendation.setMatchFactors(new HashMap<>() {{
-            put("skillMatch", 0.9);
-            put("locationMatch", 1.0);
-            put("experienceMatch", 0.8);
-            put("salaryMatch", 1.0);
-            put("companyMatch", 0.5);
-        }});
+        testRecommendation.setMatchFactors(new MatchFactors(0.9, 1.0, 0.8, 1.0, 0.5));
     }
 
     @Test
     void getRecommendationsForUser_Success() throws Exception {
-        when(recommendationService.getRecommendationsForUser(anyString(), anyInt()))
+        when(recommendationService.getRecommendationsForUser(anyString(), anyInt(), anyBoolean(), any(JobFilter.class)))
             .thenReturn(Arrays.asList(testRecommendation));
 
         mockMvc.perform(get("/api/recommendations/users/1")
@@ -61,9 +82,41 @@ class RecommendationControllerTest {
                 .andExpect(jsonPath("$[0].matchScore").value(0.85));
     }
 
+    @Test
+    void getRecommendationsForUser_WithExplanation() throws Exception {
+        when(recommendationService.getRecommendationsForUser("1", 10, true, JobFilter.NONE))
+            .thenReturn(Arrays.asList(testRecommendation));
+
+        mockMvc.perform(get("/api/recommendations/users/1")
+                .param("explain", "true")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].matchFactors.skillMatch").value(0.9))
+                .andExpect(jsonPath("$[0].matchFactors.companyMatch").value(0.5));
+    }
+
+    @Test
+    void getRecommendationsForUser_WithBudgetFlagsPartialResults() throws Exception {
+        when(recommendationService.getRecommendationsForUser("1", 10, false, JobFilter.NONE, Duration.ofMillis(200)))
+            .thenReturn(new RecommendationResult(Arrays.asList(testRecommendation), false));
+
+        mockMvc.perform(get("/api/recommendations/users/1")
+                .param("budgetMs", "200")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Recommendations-Complete", "false"))
+                .andExpect(jsonPath("$[0].jobId").value("1"));
+
+        mockMvc.perform(get("/api/recommendations/users/1")
+                .header("X-Latency-Budget-Ms", "200")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Recommendations-Complete", "false"));
+    }
+
     @Test
     void getRecommendationsForUser_NoResults() throws Exception {
-        when(recommendationService.getRecommendationsForUser(anyString(), anyInt()))
+        when(recommendationService.getRecommendationsForUser(anyString(), anyInt(), anyBoolean(), any(JobFilter.class)))
             .thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/api/recommendations/users/999")
@@ -72,9 +125,70 @@ class RecommendationControllerTest {
                 .andExpect(jsonPath("$").isEmpty());
     }
 
+    @Test
+    void getRecommendationsForUser_PushesDownFilters() throws Exception {
+        when(recommendationService.getRecommendationsForUser("1", 10, false, new JobFilter("Remote", 100000.0)))
+            .thenReturn(Arrays.asList(testRecommendation));
+
+        mockMvc.perform(get("/api/recommendations/users/1")
+                .param("location", "Remote")
+                .param("minSalary", "100000")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].jobId").value("1"));
+    }
+
+    @Test
+    void getRecommendationsForUsers_StreamsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserRecommendationList> sink = invocation.getArgument(3);
+            sink.accept(new UserRecommendationList("1", List.of(testRecommendation)));
+            sink.accept(new UserRecommendationList("2", List.of()));
+            return null;
+        }).when(recommendationService).getRecommendationsForUsers(eq(List.of("1", "2")), eq(5), eq(false), any());
+
+        MvcResult result = mockMvc.perform(post("/api/recommendations/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userIds\": [\"1\", \"2\"], \"limit\": 5}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"userId\":\"1\",\"recommendations\":[{\"userId\":\"1\",\"jobId\":\"1\""));
+        assertEquals("{\"userId\":\"2\",\"recommendations\":[]}", lines[1]);
+    }
+
+    @Test
+    void getRecommendationsForUsers_RejectsEmptyRequest() throws Exception {
+        mockMvc.perform(post("/api/recommendations/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userIds\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getRecommendationsForUsers_RejectsLimitOutOfRange() throws Exception {
+        mockMvc.perform(post("/api/recommendations/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userIds\": [\"1\"], \"limit\": 2147483647}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getRecommendationsForUser_RejectsLimitOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/recommendations/users/1").param("limit", "2147483647"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/recommendations/users/1").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getMatchingUsersForJob_Success() throws Exception {
-        when(recommendationService.getMatchingUsersForJob(anyString(), anyInt()))
+        when(recommendationService.getMatchingUsersForJob(anyString(), anyInt(), anyBoolean(), isNull()))
             .thenReturn(Arrays.asList(testRecommendation));
 
         mockMvc.perform(get("/api/recommendations/jobs/1/matching-users")
@@ -85,9 +199,21 @@ class RecommendationControllerTest {
                 .andExpect(jsonPath("$[0].matchScore").value(0.85));
     }
 
+    @Test
+    void getMatchingUsersForJob_FiltersByLocation() throws Exception {
+        when(recommendationService.getMatchingUsersForJob("1", 10, false, "Remote"))
+            .thenReturn(Arrays.asList(testRecommendation));
+
+        mockMvc.perform(get("/api/recommendations/jobs/1/matching-users")
+                .param("location", "Remote")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].userId").value("1"));
+    }
+
     @Test
     void getMatchingUsersForJob_NoResults() throws Exception {
-        when(recommendationService.getMatchingUsersForJob(anyString(), anyInt()))
+        when(recommendationService.getMatchingUsersForJob(anyString(), anyInt(), anyBoolean(), isNull()))
             .thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/api/recommendations/jobs/999/matching-users")
@@ -98,8 +224,36 @@ class RecommendationControllerTest {
 
     @Test
     void refreshRecommendations_Success() throws Exception {
+        when(refreshJobService.submit("1")).thenReturn(RefreshJob.queued("job-1", "1", Instant.now()));
+
+        mockMvc.perform(post("/api/recommendations/refresh/1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/recommendations/refresh/jobs/job-1"))
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void refreshRecommendations_ThrottledWhenQueueFull() throws Exception {
+        when(refreshJobService.submit("1")).thenThrow(new RejectedExecutionException("full"));
+
         mockMvc.perform(post("/api/recommendations/refresh/1")
                 .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk());
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void getRefreshJob_ReturnsStatus() throws Exception {
+        RefreshJob job = RefreshJob.queued("job-1", "1", Instant.now()).running(Instant.now()).succeeded(Instant.now());
+        when(refreshJobService.findById("job-1")).thenReturn(Optional.of(job));
+        when(refreshJobService.findById("job-2")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/recommendations/refresh/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value("1"))
+                .andExpect(jsonPath("$.status").value("SUCCEEDED"));
+        mockMvc.perform(get("/api/recommendations/refresh/jobs/job-2"))
+                .andExpect(status().isNotFound());
     }
 }
@@ -0,0 +1,230 @@
+package com.jobrecommendation.recommendationservice.repository;
+
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.model.SkillCandidates;
+import com.jobrecommendation.recommendationservice.service.FeatureEncoder;
+import com.jobrecommendation.recommendationservice.service.SkillDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobCatalogTest {
+
+    private SkillDictionary skillDictionary;
+    private JobCatalog jobCatalog;
+
+    @BeforeEach
+    void setUp() {
+        skillDictionary = new SkillDictionary();
+        jobCatalog = new JobCatalog(new FeatureEncoder(skillDictionary));
+    }
+
+    @Test
+    void upsert_AddsAndReplacesActiveJob() {
+        jobCatalog.upsert(job("1", "Java Developer", true, "Java"));
+        jobCatalog.upsert(job("1", "Senior Java Developer", true, "Java", "Spring"));
+
+        assertEquals(1, jobCatalog.size());
+        assertEquals(2, jobCatalog.findCompiledById("1").orElseThrow().getRequiredSkillIds().length);
+        assertEquals(1, jobCatalog.findAllCompiled().size());
+    }
+
+    @Test
+    void upsert_RemovesDeactivatedJob() {
+        jobCatalog.upsert(job("1", "Java Developer", true));
+        jobCatalog.upsert(job("1", "Java Developer", false));
+
+        assertTrue(jobCatalog.findAllCompiled().isEmpty());
+        assertTrue(jobCatalog.findCompiledById("1").isEmpty());
+        assertEquals(0, jobCatalog.snapshot().liveCount());
+    }
+
+    @Test
+    void loadAll_KeepsNewerEventState() {
+        jobCatalog.upsert(job("1", "Updated Title", true, "Java", "Spring"));
+
+        jobCatalog.loadAll(Arrays.asList(job("1", "Stale Title", true, "Java"), job("2", "Python Developer", true)));
+
+        assertTrue(jobCatalog.isInitialized());
+        assertEquals(2, jobCatalog.size());
+        assertEquals(2, jobCatalog.findCompiledById("1").orElseThrow().getRequiredSkillIds().length);
+        assertEquals(Set.of("1", "2"), liveJobIds(jobCatalog.snapshot()));
+    }
+
+    @Test
+    void loadAll_KeepsJobsRemovedByEarlierEventsRemoved() {
+        jobCatalog.upsert(job("1", "Java Developer", false));
+        jobCatalog.upsert(job("2", "Python Developer", true));
+        jobCatalog.remove("2");
+
+        jobCatalog.loadAll(Arrays.asList(job("1", "Java Developer", true), job("2", "Python Developer", true),
+                job("3", "Go Developer", true)));
+
+        assertEquals(Set.of("3"), liveJobIds(jobCatalog.snapshot()));
+
+        // Once seeded, a removed job can come back through its events
+        jobCatalog.upsert(job("1", "Java Developer", true));
+        assertTrue(jobCatalog.findCompiledById("1").isPresent());
+    }
+
+    @Test
+    void snapshot_IsImmutableAndFollowsWrites() {
+        JobPosting javaJob = job("1", "Java Developer", true, "Java", "Spring");
+        javaJob.setSalary(120000.0);
+        jobCatalog.upsert(javaJob);
+        JobColumns before = jobCatalog.snapshot();
+
+        javaJob.setSalary(130000.0);
+        jobCatalog.upsert(javaJob);
+        jobCatalog.upsert(job("2", "Python Developer", true, "Python"));
+        jobCatalog.remove("2");
+
+        JobColumns after = jobCatalog.snapshot();
+        assertEquals(1, before.liveCount());
+        assertEquals(120000.0, before.salary(0));
+        assertEquals(Set.of("1"), liveJobIds(after));
+        for (int row = 0; row < after.rowCount(); row++) {
+            if (after.isLive(row)) {
+                CompiledJobPosting compiled = jobCatalog.findCompiledById("1").orElseThrow();
+                assertEquals(130000.0, after.salary(row));
+                assertArrayEquals(compiled.getRequiredSkillIds(), after.toCompiled(row).getRequiredSkillIds());
+            }
+        }
+    }
+
+    @Test
+    void snapshot_CompactsDeletedRows() {
+        for (int i = 0; i < 3000; i++) {
+            jobCatalog.upsert(job(String.valueOf(i % 100), "Developer", true, "Java"));
+        }
+
+        JobColumns columns = jobCatalog.snapshot();
+        assertEquals(100, columns.liveCount());
+        assertTrue(columns.rowCount() < 1100);
+        assertEquals(100, liveJobIds(columns).size());
+    }
+
+    @Test
+    void findCandidatesBySkills_FollowsUpsertsAndRemovals() {
+        jobCatalog.loadAll(List.of(job("1", "Java Developer", true, "Java", "Spring"),
+                job("2", "Python Developer", true, "Python")));
+        jobCatalog.upsert(job("3", "Full Stack Developer", true, "Java", "React"));
+        jobCatalog.upsert(job("2", "Python Developer", true, "Python", "Spring"));
+        jobCatalog.upsert(job("1", "Java Developer", false));
+
+        assertEquals(Set.of("2", "3"), candidateIds("java", "spring"));
+        assertEquals(Set.of("2"), candidateIds("python"));
+        assertTrue(candidateIds("go").isEmpty());
+    }
+
+    @Test
+    void findCandidatesBySkills_CountsMatchingSkillsPerJob() {
+        jobCatalog.upsert(job("1", "Java Developer", true, "Java", "Spring", "SQL"));
+        jobCatalog.upsert(job("2", "Python Developer", true, "Python", "SQL"));
+
+        SkillCandidates candidates = jobCatalog.findCandidatesBySkills(
+                skillDictionary.encode(Arrays.asList("java", "sql", "spring")));
+
+        for (int i = 0; i < candidates.size(); i++) {
+            int expected = candidates.getJobs().get(i).getJobId().equals("1") ? 3 : 1;
+            assertEquals(expected, candidates.getMatchingSkills()[i]);
+        }
+        assertEquals(2, candidates.size());
+    }
+
+    @Test
+    void findAllBuckets_PartitionsByLocationAndExperienceSortedBySalary() {
+        JobPosting remoteSenior = job("1", "Senior Java Developer", true);
+        remoteSenior.setLocation("Remote");
+        remoteSenior.setExperienceLevel("SENIOR");
+        remoteSenior.setSalary(150000.0);
+        JobPosting remoteSeniorLowerPay = job("2", "Senior Python Developer", true);
+        remoteSeniorLowerPay.setLocation("remote");
+        remoteSeniorLowerPay.setExperienceLevel("senior");
+        remoteSeniorLowerPay.setSalary(120000.0);
+        JobPosting berlinEntry = job("3", "Junior Developer", true);
+        berlinEntry.setLocation("Berlin");
+        berlinEntry.setExperienceLevel("ENTRY");
+
+        jobCatalog.loadAll(List.of(remoteSenior, berlinEntry));
+        jobCatalog.upsert(remoteSeniorLowerPay);
+
+        List<JobBucket> buckets = jobCatalog.findAllBuckets();
+        assertEquals(2, buckets.size());
+        JobBucket remote = buckets.stream().filter(bucket -> bucket.size() == 2).findFirst().orElseThrow();
+        assertEquals("2", remote.get(0).getJobId());
+        assertEquals("1", remote.get(1).getJobId());
+        assertEquals(1, remote.firstIndexWithSalaryAtLeast(130000.0));
+
+        jobCatalog.upsert(job("3", "Junior Developer", false));
+        assertEquals(1, jobCatalog.findAllBuckets().size());
+    }
+
+    private static Set<String> liveJobIds(JobColumns columns) {
+        Set<String> jobIds = new HashSet<>();
+        for (int row = 0; row < columns.rowCount(); row++) {
+            if (columns.isLive(row)) {
+                jobIds.add(columns.jobId(row));
+            }
+        }
+        return jobIds;
+    }
+
+    @Test
+    void mappedSnapshot_MatchesHeapSnapshot(@TempDir Path directory) {
+        JobCatalog mappedCatalog = new JobCatalog(new FeatureEncoder(skillDictionary), JobColumns.mapped(directory));
+        for (int i = 0; i < 3000; i++) {
+            JobPosting posting = job(String.valueOf(i % 700), "Developer", true, "Java", "Skill-" + i % 13);
+            posting.setLocation("City-" + i % 7);
+            posting.setSalary(40000.0 + i);
+            jobCatalog.upsert(posting);
+            mappedCatalog.upsert(posting);
+        }
+        jobCatalog.remove("3");
+        mappedCatalog.remove("3");
+
+        JobColumns heap = jobCatalog.snapshot();
+        JobColumns mapped = mappedCatalog.snapshot();
+        assertEquals(699, mapped.liveCount());
+        assertEquals(heap.rowCount(), mapped.rowCount());
+        int[] userSkills = skillDictionary.encode(Arrays.asList("java", "skill-5"));
+        for (int row = 0; row < heap.rowCount(); row++) {
+            assertEquals(heap.isLive(row), mapped.isLive(row));
+            assertEquals(heap.jobId(row), mapped.jobId(row));
+            assertEquals(heap.locationId(row), mapped.locationId(row));
+            assertEquals(heap.salary(row), mapped.salary(row));
+            assertEquals(heap.skillCount(row), mapped.skillCount(row));
+            assertEquals(heap.countCommonSkills(userSkills, row), mapped.countCommonSkills(userSkills, row));
+        }
+    }
+
+    private Set<String> candidateIds(String... skills) {
+        return jobCatalog.findCandidatesBySkills(skillDictionary.encode(Arrays.asList(skills))).getJobs().stream()
+                .map(CompiledJobPosting::getJobId)
+                .collect(Collectors.toSet());
+    }
+
+    private JobPosting job(String id, String title, boolean active, String... skills) {
+        JobPosting jobPosting = job(id, title, active);
+        jobPosting.setRequiredSkills(Arrays.asList(skills));
+        return jobPosting;
+    }
+
+    private JobPosting job(String id, String title, boolean active) {
+        JobPosting jobPosting = new JobPosting();
+        jobPosting.setId(id);
+        jobPosting.setTitle(title);
+        jobPosting.setIsActive(active);
+        return jobPosting;
+    }
+}
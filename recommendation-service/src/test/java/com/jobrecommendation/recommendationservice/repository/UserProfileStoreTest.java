@@ -0,0 +1,69 @@
+package com.jobrecommendation.recommendationservice.repository;
+
+import com.jobrecommendation.recommendationservice.model.UserProfile;
+import com.jobrecommendation.recommendationservice.service.FeatureEncoder;
+import com.jobrecommendation.recommendationservice.service.SkillDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserProfileStoreTest {
+
+    private UserProfileStore userProfileStore;
+
+    @BeforeEach
+    void setUp() {
+        userProfileStore = new UserProfileStore(new FeatureEncoder(new SkillDictionary()));
+    }
+
+    @Test
+    void upsert_AddsAndReplacesProfile() {
+        userProfileStore.upsert(profile("1", "Java"));
+        userProfileStore.upsert(profile("1", "Java", "Spring"));
+
+        assertEquals(1, userProfileStore.size());
+        assertEquals(List.of("Java", "Spring"), userProfileStore.findById("1").orElseThrow().getSkills());
+        assertEquals(2, userProfileStore.findCompiledById("1").orElseThrow().getSkillIds().length);
+        assertEquals(1, userProfileStore.findAllCompiled().size());
+    }
+
+    @Test
+    void upsert_IgnoresNullProfileAndMissingId() {
+        userProfileStore.upsert(null);
+        userProfileStore.upsert(profile(null, "Java"));
+
+        assertEquals(0, userProfileStore.size());
+        assertTrue(userProfileStore.findAllCompiled().isEmpty());
+    }
+
+    @Test
+    void loadAll_KeepsNewerEventState() {
+        userProfileStore.upsert(profile("1", "Java", "Spring"));
+
+        userProfileStore.loadAll(Arrays.asList(profile("1", "Java"), profile("2", "Python"), null, profile(null)));
+
+        assertTrue(userProfileStore.isInitialized());
+        assertEquals(2, userProfileStore.size());
+        assertEquals(List.of("Java", "Spring"), userProfileStore.findById("1").orElseThrow().getSkills());
+        assertEquals(2, userProfileStore.findCompiledById("1").orElseThrow().getSkillIds().length);
+        assertTrue(userProfileStore.findCompiledById("2").isPresent());
+    }
+
+    @Test
+    void findById_MissingProfile() {
+        assertFalse(userProfileStore.isInitialized());
+        assertTrue(userProfileStore.findById("1").isEmpty());
+        assertTrue(userProfileStore.findCompiledById("1").isEmpty());
+    }
+
+    private static UserProfile profile(String id, String... skills) {
+        UserProfile userProfile = new UserProfile();
+        userProfile.setId(id);
+        userProfile.setSkills(List.of(skills));
+        return userProfile;
+    }
+}
@@ -0,0 +1,127 @@
+package com.jobrecommendation.recommendationservice.repository;
+
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.UserRecommendations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRecommendationStoreTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserRecommendationStore store;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new UserRecommendationStore(3, 10, Duration.ofMinutes(30), Duration.ofMinutes(5), meterRegistry);
+    }
+
+    @Test
+    void withScore_InsertsInOrderAndRaisesFloorOnEviction() {
+        UserRecommendations ranking = ranking("u1", new int[]{1}, new String[]{"a", "b", "c"},
+                new double[]{0.9, 0.7, 0.6}, false);
+
+        UserRecommendations patched = ranking.withScore("d", 0.8);
+
+        assertArrayEquals(new String[]{"a", "d", "b"}, patched.getJobIds());
+        assertEquals(0.6, patched.getFloor());
+        assertSame(patched, patched.withScore("e", 0.5).withoutJob("e"));
+    }
+
+    @Test
+    void withScore_DropsRescoredJobBelowFloor() {
+        UserRecommendations ranking = ranking("u1", new int[]{1}, new String[]{"a", "b", "c"},
+                new double[]{0.9, 0.7, 0.6}, false);
+
+        UserRecommendations patched = ranking.withScore("a", 0.1);
+
+        assertArrayEquals(new String[]{"b", "c"}, patched.getJobIds());
+        assertTrue(patched.canServe(2));
+        assertFalse(patched.canServe(3));
+    }
+
+    @Test
+    void canServe_AnyLimitWhenRankingHoldsWholeCatalog() {
+        UserRecommendations ranking = ranking("u1", new int[]{1}, new String[]{"a"}, new double[]{0.9}, true);
+
+        assertTrue(ranking.canServe(10));
+        assertArrayEquals(new String[]{"b", "a"}, ranking.withScore("b", 0.95).getJobIds());
+    }
+
+    @Test
+    void findAffectedUsers_ReturnsHoldersAndUsersSharingASkill() {
+        store.save(ranking("holder", new int[]{9}, new String[]{"job-1", "x", "y"}, new double[]{0.9, 0.8, 0.7}, false));
+        store.save(ranking("skilled", new int[]{2}, new String[]{"p", "q", "r"}, new double[]{0.9, 0.8, 0.7}, false));
+        store.save(ranking("unrelated", new int[]{5}, new String[]{"s", "t", "u"}, new double[]{0.9, 0.8, 0.7}, false));
+        store.save(ranking("lowFloor", new int[]{5}, new String[]{"v", "w", "z"}, new double[]{0.6, 0.5, 0.4}, false));
+
+        Set<String> affected = store.findAffectedUsers(job("job-1", 2, 3));
+
+        assertEquals(Set.of("holder", "skilled", "lowFloor"), affected);
+    }
+
+    @Test
+    void update_ReindexesJobsAndInvalidateUnindexes() {
+        store.save(ranking("u1", new int[]{1}, new String[]{"a", "b", "c"}, new double[]{0.9, 0.8, 0.7}, false));
+
+        store.update("u1", stored -> stored.withoutJob("a"));
+        assertTrue(store.findUsersHoldingJob("a").isEmpty());
+        assertEquals(Set.of("u1"), store.findUsersHoldingJob("b"));
+
+        store.invalidate("u1");
+        assertTrue(store.findByUserId("u1").isEmpty());
+        assertTrue(store.findUsersHoldingJob("b").isEmpty());
+        assertTrue(store.findAffectedUsers(job("z", 1)).isEmpty());
+    }
+
+    @Test
+    void save_EvictsBeyondMaximumSizeAndUnindexes() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new UserRecommendationStore(3, 2, Duration.ofMinutes(30), Duration.ofMinutes(5), meterRegistry);
+        for (String userId : new String[]{"u1", "u2", "u3", "u4"}) {
+            store.save(ranking(userId, new int[]{1}, new String[]{"a", "b", "c"}, new double[]{0.9, 0.8, 0.7}, false));
+        }
+
+        assertEquals(2, store.size());
+        assertEquals(2, store.findUsersHoldingJob("a").size());
+        assertEquals(2.0, meterRegistry.get("cache.evictions").tag("cache", "recommendations").functionCounter().count());
+    }
+
+    @Test
+    void findByUserId_RecordsHitsAndMisses() {
+        store.save(ranking("u1", new int[]{1}, new String[]{"a"}, new double[]{0.9}, true));
+
+        assertTrue(store.findByUserId("u1").isPresent());
+        assertTrue(store.findByUserId("u2").isEmpty());
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "recommendations", "result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "recommendations", "result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void needsRefresh_OnceRankingIsOlderThanRefreshInterval() {
+        UserRecommendations ranking = ranking("u1", new int[]{1}, new String[]{"a"}, new double[]{0.9}, true);
+        UserRecommendationStore eagerStore = new UserRecommendationStore(3, 10, Duration.ofMinutes(30), Duration.ZERO,
+                new SimpleMeterRegistry());
+
+        assertFalse(store.needsRefresh(ranking));
+        assertTrue(eagerStore.needsRefresh(ranking.withScore("b", 0.5)));
+    }
+
+    private UserRecommendations ranking(String userId, int[] skillIds, String[] jobIds, double[] scores,
+                                        boolean exhaustive) {
+        CompiledUserProfile user = new CompiledUserProfile(userId, skillIds, -1, 0, Double.NaN, new int[0]);
+        return UserRecommendations.of(user, jobIds, scores, 3, exhaustive);
+    }
+
+    private CompiledJobPosting job(String jobId, int... skillIds) {
+        return new CompiledJobPosting(jobId, skillIds, -1, 0, Double.NaN, -1);
+    }
+}
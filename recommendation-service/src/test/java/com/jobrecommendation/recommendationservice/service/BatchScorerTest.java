@@ -0,0 +1,73 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.JobBlock;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class BatchScorerTest {
+
+    // Missing, zero, negative and infinite salaries next to regular ones
+    private static final double[] SALARIES = {Double.NaN, 0.0, -10_000.0, 40_000.0, 80_000.0, 100_000.0, 150_000.0,
+        Double.POSITIVE_INFINITY};
+
+    private final RecommendationEngine recommendationEngine = new RecommendationEngine(BatchScorer.scalar());
+    private final Random random = new Random(3);
+
+    @Test
+    void scalar_MatchesPairwiseScores() {
+        assertMatchesPairwiseScores(BatchScorer.scalar());
+    }
+
+    @Test
+    void vector_MatchesPairwiseScores() {
+        // The build adds the module; an IDE run without it only checks the scalar scorer
+        assumeTrue(BatchScorer.isVectorAvailable());
+        assertSame(VectorBatchScorer.INSTANCE, BatchScorer.best());
+        assertMatchesPairwiseScores(BatchScorer.best());
+    }
+
+    private void assertMatchesPairwiseScores(BatchScorer batchScorer) {
+        for (int u = 0; u < 200; u++) {
+            CompiledUserProfile user = new CompiledUserProfile("user-" + u, ids(4), random.nextInt(4) - 1,
+                    random.nextInt(4), pick(SALARIES), ids(3));
+            // Sizes that are not a multiple of the lane count leave rows for the scalar tail
+            int size = random.nextInt(40);
+            JobBlock block = new JobBlock(size);
+            CompiledJobPosting[] jobs = new CompiledJobPosting[size];
+            for (int i = 0; i < size; i++) {
+                jobs[i] = new CompiledJobPosting("job-" + i, ids(4), random.nextInt(4) - 1, random.nextInt(4),
+                        pick(SALARIES), random.nextInt(5) - 1);
+                block.getSkillMatches()[i] = recommendationEngine.calculateSkillMatch(user.getSkillIds(),
+                        jobs[i].getRequiredSkillIds());
+                block.getLocationIds()[i] = jobs[i].getLocationId();
+                block.getExperienceLevels()[i] = jobs[i].getExperienceLevel();
+                block.getSalaries()[i] = jobs[i].getSalary();
+                block.getCompanyIds()[i] = jobs[i].getCompanyId();
+            }
+            block.setSize(size);
+
+            double[] scores = new double[size];
+            batchScorer.score(user, block, scores);
+
+            for (int i = 0; i < size; i++) {
+                assertEquals(recommendationEngine.calculateMatchScore(user, jobs[i]), scores[i], 0.0,
+                        user + " " + jobs[i]);
+            }
+        }
+    }
+
+    /** Sorted, distinct ids out of a small range, so that lists overlap. */
+    private int[] ids(int maxCount) {
+        return random.ints(random.nextInt(maxCount + 1), 0, 6).sorted().distinct().toArray();
+    }
+
+    private double pick(double[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,131 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.JobFilter;
+import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.model.UserProfile;
+import com.jobrecommendation.recommendationservice.model.UserRecommendations;
+import com.jobrecommendation.recommendationservice.repository.JobCatalog;
+import com.jobrecommendation.recommendationservice.repository.JobColumns;
+import com.jobrecommendation.recommendationservice.repository.UserProfileStore;
+import com.jobrecommendation.recommendationservice.repository.UserRecommendationStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkRankerTest {
+
+    private FeatureEncoder featureEncoder;
+    private JobCatalog jobCatalog;
+    private UserProfileStore userProfileStore;
+    private UserRecommendationStore userRecommendationStore;
+    private JobRanker jobRanker;
+    private WorkScheduler workScheduler;
+    private BulkRanker bulkRanker;
+    private RandomCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        featureEncoder = new FeatureEncoder(new SkillDictionary());
+        jobCatalog = new JobCatalog(featureEncoder);
+        userProfileStore = new UserProfileStore(featureEncoder);
+        userRecommendationStore = new UserRecommendationStore(10, 1000, Duration.ofMinutes(30),
+                Duration.ofMinutes(5), new SimpleMeterRegistry());
+        RecommendationEngine recommendationEngine = new RecommendationEngine();
+        jobRanker = new JobRanker(recommendationEngine, jobCatalog, featureEncoder, false);
+        // Tiles that do not divide the user and job counts, so partial tiles are covered
+        workScheduler = new WorkScheduler(2, Map.of(), new SimpleMeterRegistry());
+        bulkRanker = new BulkRanker(recommendationEngine, jobCatalog, userProfileStore, userRecommendationStore,
+                workScheduler, 7, 13);
+        catalog = new RandomCatalog(11, 0.2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workScheduler.shutdown();
+    }
+
+    @Test
+    void recomputeAll_MatchesExhaustiveRanking() {
+        List<JobPosting> jobs = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            jobs.add(catalog.job("job-" + i));
+        }
+        jobCatalog.loadAll(jobs);
+        jobCatalog.remove("job-5");
+        List<UserProfile> users = new ArrayList<>();
+        for (int u = 0; u < 40; u++) {
+            users.add(catalog.user("user-" + u));
+        }
+        userProfileStore.loadAll(users);
+
+        assertEquals(40, bulkRanker.recomputeAll());
+
+        for (CompiledUserProfile user : userProfileStore.findAllCompiled()) {
+            UserRecommendations expected = jobRanker.rankAll(user, 10, JobFilter.NONE);
+            UserRecommendations stored = userRecommendationStore.findByUserId(user.getUserId()).orElseThrow();
+            assertArrayEquals(expected.getJobIds(), stored.getJobIds(), user.getUserId());
+            assertArrayEquals(expected.getScores(), stored.getScores(), user.getUserId());
+        }
+    }
+
+    @Test
+    void submitRecomputation_RunsAsBulkWork() {
+        jobCatalog.loadAll(List.of(catalog.job("job-1"), catalog.job("job-2")));
+        userProfileStore.loadAll(List.of(catalog.user("user-1"), catalog.user("user-2")));
+
+        assertEquals(2, bulkRanker.submitRecomputation().join());
+        assertTrue(userRecommendationStore.findByUserId("user-2").isPresent());
+        assertEquals(0, workScheduler.queued(WorkPriority.BULK));
+    }
+
+    @Test
+    void recompute_MarksSmallCatalogsExhaustive() {
+        jobCatalog.loadAll(List.of(catalog.job("job-1"), catalog.job("job-2")));
+        userProfileStore.loadAll(List.of(catalog.user("user-1")));
+
+        bulkRanker.recomputeAll();
+
+        UserRecommendations stored = userRecommendationStore.findByUserId("user-1").orElseThrow();
+        assertEquals(2, stored.size());
+        assertTrue(stored.canServe(50));
+    }
+
+    @Test
+    void recompute_PatchesJobsChangedDuringThePass() {
+        List<JobPosting> jobs = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            jobs.add(catalog.job("job-" + i, "Go"));
+        }
+        jobCatalog.loadAll(jobs);
+        UserProfile profile = catalog.user("user-1", "Java", "Spring");
+        profile.setPreferredLocation("Remote");
+        profile.setExperienceLevel("SENIOR");
+        profile.setExpectedSalary(100_000.0);
+        userProfileStore.loadAll(List.of(profile));
+        JobColumns ranked = jobCatalog.snapshot();
+        CompiledUserProfile user = userProfileStore.findCompiledById("user-1").orElseThrow();
+        String removed = jobRanker.rankAll(user, 10, JobFilter.NONE).getJobIds()[0];
+
+        JobPosting perfect = catalog.job("job-new", "Java", "Spring");
+        perfect.setLocation("Remote");
+        perfect.setExperienceLevel("SENIOR");
+        perfect.setSalary(500_000.0);
+        perfect.setCompany(null);
+        jobCatalog.upsert(perfect);
+        jobCatalog.remove(removed);
+        bulkRanker.recompute(ranked, List.of(user));
+
+        UserRecommendations stored = userRecommendationStore.findByUserId("user-1").orElseThrow();
+        assertEquals("job-new", stored.getJobIds()[0]);
+        assertFalse(stored.contains(removed));
+    }
+}
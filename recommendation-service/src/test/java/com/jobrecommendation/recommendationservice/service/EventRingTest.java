@@ -0,0 +1,156 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventRingTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EventRing<Event> ring;
+
+    @AfterEach
+    void tearDown() {
+        if (ring != null) {
+            ring.close();
+        }
+    }
+
+    @Test
+    void publish_HandlesEventsOfOneKeyInOrder() {
+        Map<String, List<Integer>> handled = new ConcurrentHashMap<>();
+        ring = ring(8, 3, event -> handled.computeIfAbsent(event.key(), key -> new CopyOnWriteArrayList<>())
+                .add(event.version()), EventRing.Backpressure.NONE);
+
+        List<Integer> expected = new ArrayList<>();
+        for (int version = 0; version < 1000; version++) {
+            for (int key = 0; key < 10; key++) {
+                ring.publish(new Event("job-" + key, version));
+            }
+            expected.add(version);
+        }
+        ring.close();
+
+        assertEquals(10, handled.size());
+        handled.values().forEach(versions -> assertEquals(expected, versions));
+        assertEquals(10000, meterRegistry.get("recommendation.events.ring.latency").timer().count());
+        assertEquals(0, ring.depth());
+    }
+
+    @Test
+    void publish_PausesSourceUntilWorkersCatchUp() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger handled = new AtomicInteger();
+        List<String> signals = new CopyOnWriteArrayList<>();
+        ring = ring(8, 1, event -> {
+            await(release);
+            handled.incrementAndGet();
+        }, new EventRing.Backpressure() {
+            @Override
+            public void pause() {
+                signals.add("pause");
+            }
+
+            @Override
+            public void resume() {
+                signals.add("resume");
+            }
+        });
+
+        for (int version = 0; version < 7; version++) {
+            ring.publish(new Event("job-1", version));
+        }
+        assertEquals(List.of("pause"), signals);
+        assertEquals(1.0, meterRegistry.get("recommendation.events.ring.pauses").counter().count());
+
+        release.countDown();
+        ring.publish(new Event("job-1", 7));
+        ring.close();
+        assertEquals(8, handled.get());
+        assertEquals(List.of("pause", "resume"), signals);
+    }
+
+    @Test
+    void publish_WaitsForFreeSlotWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger handled = new AtomicInteger();
+        ring = ring(4, 1, event -> {
+            await(release);
+            handled.incrementAndGet();
+        }, EventRing.Backpressure.NONE);
+
+        Thread publisher = new Thread(() -> {
+            for (int version = 0; version < 20; version++) {
+                ring.publish(new Event("job-1", version));
+            }
+        });
+        publisher.start();
+        publisher.join(200);
+        assertTrue(publisher.isAlive());
+        assertTrue(ring.depth() <= 4);
+
+        release.countDown();
+        publisher.join(TimeUnit.SECONDS.toMillis(5));
+        ring.close();
+        assertEquals(20, handled.get());
+    }
+
+    @Test
+    void publish_ReleasesHandledEvents() throws Exception {
+        CountDownLatch handled = new CountDownLatch(1);
+        ring = ring(1024, 1, event -> handled.countDown(), EventRing.Backpressure.NONE);
+        Event event = new Event("job-1", 0);
+        WeakReference<Event> published = new WeakReference<>(event);
+
+        ring.publish(event);
+        event = null;
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+
+        // The slot is not reused before 1023 more events, so only the worker can have let go of it
+        for (int attempt = 0; attempt < 50 && published.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(published.get());
+    }
+
+    @Test
+    void publish_WithoutWorkersHandlesOnPublishingThread() {
+        List<Thread> threads = new ArrayList<>();
+        ring = ring(4, 0, event -> threads.add(Thread.currentThread()), EventRing.Backpressure.NONE);
+
+        ring.publish(new Event("job-1", 0));
+
+        assertEquals(List.of(Thread.currentThread()), threads);
+    }
+
+    private EventRing<Event> ring(int size, int workers, Consumer<Event> handler,
+                                  EventRing.Backpressure backpressure) {
+        return new EventRing<>("test", size, workers, Event::key, handler, backpressure, meterRegistry);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Event(String key, int version) {
+    }
+}
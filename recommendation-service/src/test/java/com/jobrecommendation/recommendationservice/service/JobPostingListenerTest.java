@@ -0,0 +1,112 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.model.JobPostingEvent;
+import com.jobrecommendation.recommendationservice.model.JobPostingEvent.Type;
+import com.jobrecommendation.recommendationservice.repository.JobCatalog;
+import com.jobrecommendation.recommendationservice.repository.UserRecommendationStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobPostingListenerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JobCatalog jobCatalog;
+    private ReplayTracker replayTracker;
+    private WorkScheduler workScheduler;
+    private JobPostingListener listener;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jobCatalog = new JobCatalog(new FeatureEncoder(new SkillDictionary()));
+        replayTracker = new ReplayTracker();
+        workScheduler = new WorkScheduler(1, Map.of(), meterRegistry);
+        UserRecommendationStore userRecommendationStore = new UserRecommendationStore(50, 100,
+                Duration.ofHours(1), Duration.ofHours(1), meterRegistry);
+        listener = new JobPostingListener(new RecommendationEngine(), jobCatalog, userRecommendationStore,
+                replayTracker, workScheduler, new KafkaListenerEndpointRegistry(), 16, 0, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stopScoring();
+        workScheduler.shutdown();
+    }
+
+    @Test
+    void handleJobPostings_AppliesLatestStatePerJob() {
+        listener.handleJobPostings(List.of(
+                record(0, 10, Type.CREATED, job("1", "Java Developer", true, "Java")),
+                record(1, 4, Type.CREATED, job("2", "Python Developer", true, "Python")),
+                record(0, 11, Type.UPDATED, job("1", "Java Developer", true, "Java", "Spring")),
+                record(1, 5, Type.UPDATED, job("2", "Python Developer", false)),
+                new ConsumerRecord<>("job-postings", 0, 12, null, null)));
+
+        assertEquals(1, jobCatalog.size());
+        assertEquals(2, jobCatalog.findCompiledById("1").orElseThrow().getRequiredSkillIds().length);
+        assertTrue(jobCatalog.findCompiledById("2").isEmpty());
+        assertEquals(Map.of(new TopicPartition("job-postings", 0), 13L, new TopicPartition("job-postings", 1), 6L),
+                replayTracker.getPositions());
+        assertEquals(2.0, meterRegistry.get("recommendation.events.batch.deduplicated").counter().count());
+        assertEquals(5.0, meterRegistry.get("recommendation.events.batch.size").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("recommendation.events.batch").timer().count());
+    }
+
+    @Test
+    void handleJobPostings_DeactivatedEventRemovesJob() {
+        listener.handleJobPostings(List.of(record(0, 0, Type.CREATED, job("1", "Java Developer", true, "Java"))));
+        assertEquals(1, jobCatalog.size());
+
+        listener.handleJobPostings(List.of(record(0, 1, Type.DEACTIVATED, job("1", "Java Developer", true, "Java"))));
+
+        assertTrue(jobCatalog.findCompiledById("1").isEmpty());
+    }
+
+    @Test
+    void handleJobPostings_DropsEventsOlderThanTheAppliedOne() {
+        Instant created = Instant.parse("2026-01-01T00:00:00Z");
+        JobPostingEvent creation = new JobPostingEvent(Type.CREATED, JobPostingEvent.VERSION, "1", created,
+                job("1", "Java Developer", true, "Java"));
+        JobPostingEvent deactivation = new JobPostingEvent(Type.DEACTIVATED, JobPostingEvent.VERSION, "1",
+                created.plusSeconds(60), job("1", "Java Developer", false, "Java"));
+        listener.handleJobPostings(List.of(record(0, 0, creation), record(0, 1, deactivation)));
+
+        // Redelivered after the deactivation was applied
+        listener.handleJobPostings(List.of(record(0, 0, creation)));
+
+        assertTrue(jobCatalog.findCompiledById("1").isEmpty());
+        assertEquals(1.0, meterRegistry.get("recommendation.events.stale").counter().count());
+    }
+
+    private static ConsumerRecord<String, JobPostingEvent> record(int partition, long offset, Type type,
+                                                                  JobPosting jobPosting) {
+        return new ConsumerRecord<>("job-postings", partition, offset, jobPosting.getId(),
+                JobPostingEvent.of(type, jobPosting));
+    }
+
+    private static ConsumerRecord<String, JobPostingEvent> record(int partition, long offset, JobPostingEvent event) {
+        return new ConsumerRecord<>("job-postings", partition, offset, event.jobId(), event);
+    }
+
+    private static JobPosting job(String id, String title, boolean active, String... skills) {
+        JobPosting jobPosting = new JobPosting();
+        jobPosting.setId(id);
+        jobPosting.setTitle(title);
+        jobPosting.setIsActive(active);
+        jobPosting.setRequiredSkills(List.of(skills));
+        return jobPosting;
+    }
+}
@@ -0,0 +1,141 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.JobFilter;
+import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.model.UserRecommendations;
+import com.jobrecommendation.recommendationservice.repository.JobCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobRankerTest {
+
+    private FeatureEncoder featureEncoder;
+    private JobCatalog jobCatalog;
+    private JobRanker jobRanker;
+    private RandomCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        featureEncoder = new FeatureEncoder(new SkillDictionary());
+        jobCatalog = new JobCatalog(featureEncoder);
+        jobRanker = new JobRanker(new RecommendationEngine(), jobCatalog, featureEncoder, true);
+        catalog = new RandomCatalog(7, 0);
+    }
+
+    @Test
+    void rank_WithThresholdPruningMatchesExhaustiveRanking() {
+        // A small vocabulary gives many equal scores, so tie-breaking is exercised too
+        List<JobPosting> jobs = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            jobs.add(catalog.job("job-" + i));
+        }
+        jobCatalog.loadAll(jobs);
+
+        for (int u = 0; u < 200; u++) {
+            CompiledUserProfile user = featureEncoder.compile(catalog.user("user-" + u));
+            for (int capacity : new int[]{1, 5, 20, 50}) {
+                UserRecommendations pruned = jobRanker.rank(user, capacity);
+                UserRecommendations exhaustive = jobRanker.rankAll(user, capacity, JobFilter.NONE);
+
+                assertArrayEquals(exhaustive.getJobIds(), pruned.getJobIds(), user.getUserId() + " k=" + capacity);
+                assertArrayEquals(exhaustive.getScores(), pruned.getScores(), user.getUserId() + " k=" + capacity);
+            }
+        }
+    }
+
+    @Test
+    void rank_FallsBackToWholeCatalogWhenCandidatesCannotFillTheList() {
+        jobCatalog.loadAll(List.of(catalog.job("job-1", "Java"), catalog.job("job-2", "Python"), catalog.job("job-3")));
+        CompiledUserProfile user = featureEncoder.compile(catalog.user("user-1", "Java"));
+
+        UserRecommendations ranking = jobRanker.rank(user, 3);
+
+        assertEquals(3, ranking.size());
+        assertEquals("job-1", ranking.getJobIds()[0]);
+        assertArrayEquals(jobRanker.rankAll(user, 3, JobFilter.NONE).getJobIds(), ranking.getJobIds());
+    }
+
+    @Test
+    void rank_WithFiltersMatchesExhaustiveRanking() {
+        List<JobPosting> jobs = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            jobs.add(catalog.job("job-" + i));
+        }
+        jobCatalog.loadAll(jobs);
+        JobFilter[] filters = {
+            new JobFilter("Berlin", null),
+            new JobFilter(null, 80_000.0),
+            new JobFilter("london", 40_000.0),
+            new JobFilter("Atlantis", null)
+        };
+
+        for (int u = 0; u < 50; u++) {
+            CompiledUserProfile user = featureEncoder.compile(catalog.user("user-" + u));
+            for (JobFilter filter : filters) {
+                UserRecommendations pruned = jobRanker.rank(user, 10, filter);
+                UserRecommendations exhaustive = jobRanker.rankAll(user, 10, filter);
+
+                assertArrayEquals(exhaustive.getJobIds(), pruned.getJobIds(), user.getUserId() + " " + filter);
+                assertArrayEquals(exhaustive.getScores(), pruned.getScores(), user.getUserId() + " " + filter);
+            }
+        }
+        assertEquals(0, jobRanker.rank(featureEncoder.compile(catalog.user("user-x")), 10, filters[3]).size());
+    }
+
+    @Test
+    void rank_ReturnsPartialRankingOnceDeadlineHasPassed() {
+        List<JobPosting> jobs = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            jobs.add(catalog.job("job-" + i, "Java"));
+        }
+        jobCatalog.loadAll(jobs);
+        CompiledUserProfile user = featureEncoder.compile(catalog.user("user-1", "Java"));
+        Deadline expired = Deadline.after(Duration.ZERO);
+
+        // A capacity above one chunk keeps pruning from finishing within the first chunk
+        for (UserRecommendations partial : List.of(jobRanker.rank(user, 2_000, JobFilter.NONE, expired),
+                jobRanker.rankAll(user, 2_000, JobFilter.NONE, expired))) {
+            // Exactly one chunk is scored before giving up
+            assertFalse(partial.isComplete());
+            assertEquals(1_024, partial.size());
+            assertFalse(partial.canServe(1));
+        }
+        UserRecommendations complete = jobRanker.rank(user, 20, JobFilter.NONE, Deadline.after(Duration.ofMinutes(1)));
+        assertTrue(complete.isComplete());
+        assertArrayEquals(jobRanker.rankAll(user, 20, JobFilter.NONE).getJobIds(), complete.getJobIds());
+    }
+
+    @Test
+    void rankAll_ForSeveralUsersMatchesRankingEachUser() {
+        // More rows than a block, with removed rows in between
+        List<JobPosting> jobs = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) {
+            jobs.add(catalog.job("job-" + i));
+        }
+        jobCatalog.loadAll(jobs);
+        for (int i = 0; i < 2_500; i += 7) {
+            jobCatalog.remove("job-" + i);
+        }
+        List<CompiledUserProfile> users = new ArrayList<>();
+        for (int u = 0; u < 40; u++) {
+            users.add(featureEncoder.compile(catalog.user("user-" + u)));
+        }
+
+        List<UserRecommendations> rankings = jobRanker.rankAll(users, 20, jobCatalog.snapshot());
+
+        assertEquals(users.size(), rankings.size());
+        for (int u = 0; u < users.size(); u++) {
+            UserRecommendations expected = jobRanker.rankAll(users.get(u), 20, JobFilter.NONE);
+            assertSame(users.get(u), rankings.get(u).getUser());
+            assertArrayEquals(expected.getJobIds(), rankings.get(u).getJobIds(), users.get(u).getUserId());
+            assertArrayEquals(expected.getScores(), rankings.get(u).getScores(), users.get(u).getUserId());
+        }
+    }
+}
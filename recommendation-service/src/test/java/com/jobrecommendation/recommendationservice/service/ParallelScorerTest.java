@@ -0,0 +1,55 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelScorerTest {
+
+    private ForkJoinPool scoringPool;
+
+    @BeforeEach
+    void setUp() {
+        scoringPool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scoringPool.shutdown();
+    }
+
+    @Test
+    void selectTopK_ParallelMatchesSequential() {
+        Random random = new Random(7);
+        double[] scores = new double[200_000];
+        for (int i = 0; i < scores.length; i++) {
+            // Coarse scores so that ties have to be resolved the same way
+            scores[i] = random.nextInt(50) / 50.0;
+        }
+
+        TopKSelector sequential = new ParallelScorer(scoringPool, Integer.MAX_VALUE)
+                .selectTopK(scores.length, 20, i -> scores[i]);
+        TopKSelector parallel = new ParallelScorer(scoringPool, 10_000)
+                .selectTopK(scores.length, 20, i -> scores[i]);
+
+        assertArrayEquals(sequential.sortedIndices(), parallel.sortedIndices());
+    }
+
+    @Test
+    void selectTopK_SmallInputStaysOnCallingThread() {
+        Thread caller = Thread.currentThread();
+        ParallelScorer parallelScorer = new ParallelScorer(scoringPool, 1_000);
+
+        TopKSelector topK = parallelScorer.selectTopK(100, 5, i -> {
+            assertSame(caller, Thread.currentThread());
+            return i;
+        });
+
+        assertArrayEquals(new int[]{99, 98, 97, 96, 95}, topK.sortedIndices());
+    }
+}
@@ -0,0 +1,72 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.model.UserProfile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded random jobs and profiles for tests comparing rankings. A small
+ * vocabulary gives many equal scores, so tie-breaking is exercised too.
+ * Location, company and salary are left unset at {@code nullRate}; the
+ * experience level is always unset at a quarter.
+ */
+final class RandomCatalog {
+
+    private static final String[] SKILLS = {"Java", "Spring", "Kafka", "SQL", "Docker", "React", "Python", "Go"};
+    private static final String[] LOCATIONS = {"Remote", "Berlin", "London"};
+    private static final String[] LEVELS = {"ENTRY", "MID", "SENIOR", null};
+    private static final String[] COMPANIES = {"TechCorp", "DataInc", "CloudCo"};
+
+    private final Random random;
+    private final double nullRate;
+
+    RandomCatalog(long seed, double nullRate) {
+        this.random = new Random(seed);
+        this.nullRate = nullRate;
+    }
+
+    JobPosting job(String id, String... skills) {
+        JobPosting jobPosting = new JobPosting();
+        jobPosting.setId(id);
+        jobPosting.setRequiredSkills(skills.length > 0 ? List.of(skills) : randomSkills());
+        jobPosting.setLocation(orNull(pick(LOCATIONS)));
+        jobPosting.setExperienceLevel(pick(LEVELS));
+        jobPosting.setCompany(orNull(pick(COMPANIES)));
+        jobPosting.setSalary(orNull(random.nextInt(4) * 40_000.0));
+        jobPosting.setIsActive(true);
+        return jobPosting;
+    }
+
+    UserProfile user(String id, String... skills) {
+        UserProfile userProfile = new UserProfile();
+        userProfile.setId(id);
+        userProfile.setSkills(skills.length > 0 ? List.of(skills) : randomSkills());
+        userProfile.setPreferredLocation(orNull(pick(LOCATIONS)));
+        userProfile.setExperienceLevel(pick(LEVELS));
+        userProfile.setPreferredCompanies(random.nextBoolean()
+                ? Collections.singletonList(orNull(pick(COMPANIES))) : List.of());
+        userProfile.setExpectedSalary(orNull(80_000.0 + random.nextInt(3) * 20_000.0));
+        return userProfile;
+    }
+
+    private List<String> randomSkills() {
+        List<String> skills = new ArrayList<>();
+        int count = random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            skills.add(pick(SKILLS));
+        }
+        return skills;
+    }
+
+    private <T> T orNull(T value) {
+        return nullRate > 0 && random.nextDouble() < nullRate ? null : value;
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
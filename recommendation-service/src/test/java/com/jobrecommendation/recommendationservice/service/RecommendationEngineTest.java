@@ -1,5 +1,7 @@
 package com.jobrecommendation.recommendationservice.service;
 
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
 import com.jobrecommendation.recommendationservice.model.JobPosting;
 import com.jobrecommendation.recommendationservice.model.JobRecommendation;
 import com.jobrecommendation.recommendationservice.model.UserProfile;
@@ -19,6 +21,9 @@ class RecommendationEngineTest {
     @Autowired
     private RecommendationEngine recommendationEngine;
 
+    @Autowired
+    private FeatureEncoder featureEncoder;
+
     private UserProfile userProfile;
     private JobPosting jobPosting;
 
@@ -52,11 +57,11 @@ class RecommendationEngineTest {
         assertEquals(1.0, recommendation.getMatchScore());
         
         var factors = recommendation.getMatchFactors();
-        assertEquals(1.0, factors.get("skillMatch"));
-        assertEquals(1.0, factors.get("locationMatch"));
-        assertEquals(1.0, factors.get("experienceMatch"));
-        assertEquals(1.0, factors.get("salaryMatch"));
-        assertEquals(1.0, factors.get("companyMatch"));
+        assertEquals(1.0, factors.skillMatch());
+        assertEquals(1.0, factors.locationMatch());
+        assertEquals(1.0, factors.experienceMatch());
+        assertEquals(1.0, factors.salaryMatch());
+        assertEquals(1.0, factors.companyMatch());
     }
 
     @Test
@@ -67,7 +72,7 @@ class RecommendationEngineTest {
         
         assertNotNull(recommendation);
         assertTrue(recommendation.getMatchScore() < 1.0);
-        assertEquals(0.6, recommendation.getMatchFactors().get("skillMatch"));
+        assertEquals(0.6, recommendation.getMatchFactors().skillMatch());
     }
 
     @Test
@@ -77,7 +82,7 @@ class RecommendationEngineTest {
         JobRecommendation recommendation = recommendationEngine.calculateJobMatch(userProfile, jobPosting);
         
         assertNotNull(recommendation);
-        assertEquals(0.0, recommendation.getMatchFactors().get("locationMatch"));
+        assertEquals(0.0, recommendation.getMatchFactors().locationMatch());
     }
 
     @Test
@@ -87,7 +92,7 @@ class RecommendationEngineTest {
         JobRecommendation recommendation = recommendationEngine.calculateJobMatch(userProfile, jobPosting);
         
         assertNotNull(recommendation);
-        assertTrue(recommendation.getMatchFactors().get("salaryMatch") < 1.0);
+        assertTrue(recommendation.getMatchFactors().salaryMatch() < 1.0);
     }
 
     @Test
@@ -98,7 +103,7 @@ class RecommendationEngineTest {
         JobRecommendation recommendation = recommendationEngine.calculateJobMatch(userProfile, jobPosting);
         
         assertNotNull(recommendation);
-        assertEquals(0.0, recommendation.getMatchFactors().get("experienceMatch"));
+        assertEquals(0.0, recommendation.getMatchFactors().experienceMatch());
     }
 
     @Test
@@ -108,7 +113,7 @@ class RecommendationEngineTest {
         JobRecommendation recommendation = recommendationEngine.calculateJobMatch(userProfile, jobPosting);
         
         assertNotNull(recommendation);
-        assertEquals(0.5, recommendation.getMatchFactors().get("companyMatch")); // Neutral score for non-preferred company
+        assertEquals(0.5, recommendation.getMatchFactors().companyMatch()); // Neutral score for non-preferred company
     }
 
     @Test
@@ -123,10 +128,57 @@ class RecommendationEngineTest {
         
         assertNotNull(recommendation);
         // All match factors should be 0.0 or 0.5 (neutral) for null values
-        assertTrue(recommendation.getMatchFactors().get("skillMatch") <= 0.0);
-        assertTrue(recommendation.getMatchFactors().get("locationMatch") <= 0.0);
-        assertTrue(recommendation.getMatchFactors().get("experienceMatch") <= 0.0);
-        assertTrue(recommendation.getMatchFactors().get("salaryMatch") <= 0.0);
-        assertEquals(0.5, recommendation.getMatchFactors().get("companyMatch"));
+        assertTrue(recommendation.getMatchFactors().skillMatch() <= 0.0);
+        assertTrue(recommendation.getMatchFactors().locationMatch() <= 0.0);
+        assertTrue(recommendation.getMatchFactors().experienceMatch() <= 0.0);
+        assertTrue(recommendation.getMatchFactors().salaryMatch() <= 0.0);
+        assertEquals(0.5, recommendation.getMatchFactors().companyMatch());
+    }
+
+    @Test
+    void calculateMatchScore_CompiledPairMatchesPerPairScore() {
+        userProfile.setSkills(Arrays.asList("java", "SPRING", "Java", "Kafka"));
+        userProfile.setPreferredLocation("REMOTE");
+        userProfile.setPreferredCompanies(Arrays.asList("techcorp"));
+        jobPosting.setRequiredSkills(Arrays.asList("Java", "Spring", "Microservices", "Python", "React"));
+        jobPosting.setSalary(75000.0);
+
+        CompiledUserProfile compiledUser = featureEncoder.compile(userProfile);
+        CompiledJobPosting compiledJob = featureEncoder.compile(jobPosting);
+        JobRecommendation expected = recommendationEngine.calculateJobMatch(userProfile, jobPosting);
+
+        assertEquals(expected.getMatchScore(), recommendationEngine.calculateMatchScore(compiledUser, compiledJob));
+        assertEquals(expected.getMatchFactors(), recommendationEngine.explainMatch(compiledUser, compiledJob));
+        assertEquals(0.4, expected.getMatchFactors().skillMatch());
+    }
+
+    @Test
+    void calculateMatchScore_CompiledNullValues() {
+        userProfile.setSkills(null);
+        userProfile.setPreferredLocation(null);
+        userProfile.setExperienceLevel(null);
+        userProfile.setExpectedSalary(null);
+        userProfile.setPreferredCompanies(null);
+        jobPosting.setLocation(null);
+
+        CompiledUserProfile compiledUser = featureEncoder.compile(userProfile);
+        CompiledJobPosting compiledJob = featureEncoder.compile(jobPosting);
+
+        assertEquals(recommendationEngine.calculateJobMatch(userProfile, jobPosting).getMatchScore(),
+                recommendationEngine.calculateMatchScore(compiledUser, compiledJob));
+    }
+
+    @Test
+    void calculateJobMatch_CompiledWithoutExplanationSkipsFactors() {
+        CompiledUserProfile compiledUser = featureEncoder.compile(userProfile);
+        CompiledJobPosting compiledJob = featureEncoder.compile(jobPosting);
+
+        JobRecommendation plain = recommendationEngine.calculateJobMatch(compiledUser, compiledJob, false);
+        JobRecommendation explained = recommendationEngine.calculateJobMatch(compiledUser, compiledJob, true);
+
+        assertNull(plain.getMatchFactors());
+        assertNotNull(explained.getMatchFactors());
+        assertEquals(explained.getMatchScore(), plain.getMatchScore());
+        assertEquals(1.0, plain.getMatchScore());
     }
 }
@@ -1,20 +1,34 @@
 package com.jobrecommendation.recommendationservice.service;
 
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.JobFilter;
 import com.jobrecommendation.recommendationservice.model.JobPosting;
 import com.jobrecommendation.recommendationservice.model.JobRecommendation;
+import com.jobrecommendation.recommendationservice.model.RecommendationResult;
 import com.jobrecommendation.recommendationservice.model.UserProfile;
+import com.jobrecommendation.recommendationservice.model.UserRecommendationList;
+import com.jobrecommendation.recommendationservice.repository.JobCatalog;
+import com.jobrecommendation.recommendationservice.repository.UserProfileStore;
+import com.jobrecommendation.recommendationservice.repository.UserRecommendationStore;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -23,6 +37,21 @@ class RecommendationServiceTest {
     @Autowired
     private RecommendationService recommendationService;
 
+    @Autowired
+    private JobCatalog jobCatalog;
+
+    @Autowired
+    private UserRecommendationStore userRecommendationStore;
+
+    @Autowired
+    private UserProfileStore userProfileStore;
+
+    @Autowired
+    private StateSnapshotter stateSnapshotter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private RestTemplate restTemplate;
 
@@ -67,7 +96,7 @@ class RecommendationServiceTest {
             eq(JobPosting[].class)))
             .thenReturn(new JobPosting[]{testJobPosting});
 
-        when(recommendationEngine.calculateJobMatch(any(UserProfile.class), any(JobPosting.class)))
+        when(recommendationEngine.calculateJobMatch(any(CompiledUserProfile.class), any(CompiledJobPosting.class), anyBoolean()))
             .thenReturn(testRecommendation);
 
         List<JobRecommendation> recommendations = recommendationService.getRecommendationsForUser("1", 10);
@@ -78,6 +107,185 @@ class RecommendationServiceTest {
         assertEquals(0.85, recommendations.get(0).getMatchScore());
     }
 
+    @Test
+    void getRecommendationsForUser_ServesStoredRankingWithoutUpstreamCalls() {
+        when(restTemplate.getForObject(
+            eq("http://user-service/api/users/{userId}/profile"),
+            eq(UserProfile.class),
+            eq("1")))
+            .thenReturn(testUserProfile);
+
+        when(restTemplate.getForObject(
+            eq("http://job-posting-service/api/jobs"),
+            eq(JobPosting[].class)))
+            .thenReturn(new JobPosting[]{testJobPosting});
+
+        when(recommendationEngine.calculateJobMatch(any(CompiledUserProfile.class), any(CompiledJobPosting.class), anyBoolean()))
+            .thenReturn(testRecommendation);
+
+        recommendationService.getRecommendationsForUser("1", 10);
+        clearInvocations(restTemplate);
+
+        List<JobRecommendation> recommendations = recommendationService.getRecommendationsForUser("1", 10);
+
+        verifyNoInteractions(restTemplate);
+        assertEquals(1, recommendations.size());
+        assertEquals(0.85, recommendations.get(0).getMatchScore());
+    }
+
+    @Test
+    void getRecommendationsForUsers_StreamsOneListPerUserInRequestOrder() {
+        when(restTemplate.getForObject(
+            eq("http://user-service/api/users/{userId}/profile"),
+            eq(UserProfile.class),
+            eq("1")))
+            .thenReturn(testUserProfile);
+
+        when(restTemplate.getForObject(
+            eq("http://job-posting-service/api/jobs"),
+            eq(JobPosting[].class)))
+            .thenReturn(new JobPosting[]{testJobPosting});
+
+        when(recommendationEngine.calculateJobMatch(any(CompiledUserProfile.class), any(CompiledJobPosting.class), anyBoolean()))
+            .thenReturn(testRecommendation);
+
+        List<UserRecommendationList> lines = new ArrayList<>();
+        recommendationService.getRecommendationsForUsers(List.of("999", "1", "999"), 10, false, lines::add);
+
+        assertEquals(List.of("999", "1"), lines.stream().map(UserRecommendationList::userId).toList());
+        assertTrue(lines.get(0).recommendations().isEmpty());
+        assertEquals(1, lines.get(1).recommendations().size());
+        assertEquals(0.85, lines.get(1).recommendations().get(0).getMatchScore());
+
+        // The ranking was stored, so the single-user read needs no upstream call
+        clearInvocations(restTemplate);
+        assertEquals(1, recommendationService.getRecommendationsForUser("1", 10).size());
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void getRecommendationsForUser_ReturnsBestSoFarWhenBudgetRunsOut() {
+        when(restTemplate.getForObject(
+            eq("http://user-service/api/users/{userId}/profile"),
+            eq(UserProfile.class),
+            eq("1")))
+            .thenReturn(testUserProfile);
+
+        when(restTemplate.getForObject(
+            eq("http://job-posting-service/api/jobs"),
+            eq(JobPosting[].class)))
+            .thenReturn(new JobPosting[]{testJobPosting});
+
+        when(recommendationEngine.calculateJobMatch(any(CompiledUserProfile.class), any(CompiledJobPosting.class), anyBoolean()))
+            .thenReturn(testRecommendation);
+
+        // More jobs than one chunk, so a spent budget stops the ranking early
+        for (int i = 0; i < 3000; i++) {
+            JobPosting jobPosting = new JobPosting();
+            jobPosting.setId("budget-" + i);
+            jobPosting.setRequiredSkills(List.of("Java"));
+            jobPosting.setIsActive(true);
+            jobCatalog.upsert(jobPosting);
+        }
+        userRecommendationStore.invalidate("1");
+        double truncatedBefore = meterRegistry.counter("recommendation.requests.truncated").count();
+
+        RecommendationResult partial = recommendationService.getRecommendationsForUser(
+            "1", 10, false, JobFilter.NONE, Duration.ZERO);
+
+        assertFalse(partial.complete());
+        assertEquals(10, partial.recommendations().size());
+        assertEquals(truncatedBefore + 1, meterRegistry.counter("recommendation.requests.truncated").count());
+        assertTrue(userRecommendationStore.findByUserId("1").isEmpty());
+
+        RecommendationResult complete = recommendationService.getRecommendationsForUser(
+            "1", 10, false, JobFilter.NONE, Duration.ofMinutes(1));
+
+        assertTrue(complete.complete());
+        assertTrue(userRecommendationStore.findByUserId("1").isPresent());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void getRecommendationsForUser_FetchesProfileMissingFromStore() {
+        UserProfile userProfile = new UserProfile();
+        userProfile.setId("42");
+        userProfile.setSkills(Arrays.asList("Java"));
+        when(restTemplate.getForObject(
+            eq("http://user-service/api/users/{userId}/profile"),
+            eq(UserProfile.class),
+            eq("42")))
+            .thenReturn(userProfile);
+
+        when(restTemplate.getForObject(
+            eq("http://job-posting-service/api/jobs"),
+            eq(JobPosting[].class)))
+            .thenReturn(new JobPosting[]{testJobPosting});
+
+        when(recommendationEngine.calculateJobMatch(any(CompiledUserProfile.class), any(CompiledJobPosting.class), anyBoolean()))
+            .thenReturn(testRecommendation);
+
+        assertTrue(userProfileStore.findById("42").isEmpty());
+
+        recommendationService.getRecommendationsForUser("42", 10);
+
+        assertSame(userProfile, userProfileStore.findById("42").orElseThrow());
+        assertTrue(userProfileStore.findCompiledById("42").isPresent());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void getRecommendationsForUser_StoresFirstRankingOfColdCatalog() {
+        when(restTemplate.getForObject(
+            eq("http://user-service/api/users/{userId}/profile"),
+            eq(UserProfile.class),
+            eq("1")))
+            .thenReturn(testUserProfile);
+
+        when(restTemplate.getForObject(
+            eq("http://job-posting-service/api/jobs"),
+            eq(JobPosting[].class)))
+            .thenReturn(new JobPosting[]{testJobPosting});
+
+        when(recommendationEngine.calculateJobMatch(any(CompiledUserProfile.class), any(CompiledJobPosting.class), anyBoolean()))
+            .thenReturn(testRecommendation);
+
+        assertFalse(jobCatalog.isInitialized());
+
+        recommendationService.getRecommendationsForUser("1", 10);
+
+        assertTrue(userRecommendationStore.findByUserId("1").isPresent());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void bootstrapReplicas_MakesStateSnapshottableWithoutMatchingUsersRequests() {
+        when(restTemplate.getForObject(
+            eq("http://job-posting-service/api/jobs"),
+            eq(JobPosting[].class)))
+            .thenReturn(new JobPosting[]{testJobPosting});
+
+        when(restTemplate.getForObject(
+            eq("http://user-service/api/users/profiles"),
+            eq(UserProfile[].class)))
+            .thenReturn(new UserProfile[]{testUserProfile});
+
+        when(recommendationEngine.calculateJobMatch(any(CompiledUserProfile.class), any(CompiledJobPosting.class), anyBoolean()))
+            .thenReturn(testRecommendation);
+
+        recommendationService.bootstrapReplicas();
+        clearInvocations(restTemplate);
+        List<JobRecommendation> recommendations = recommendationService.getRecommendationsForUser("1", 10);
+
+        verifyNoInteractions(restTemplate);
+        assertEquals(1, recommendations.size());
+        assertTrue(jobCatalog.isInitialized());
+        assertTrue(userProfileStore.isInitialized());
+        assertEquals(List.of(testUserProfile), stateSnapshotter.capture().getProfiles());
+        assertEquals(1, stateSnapshotter.capture().getJobs().size());
+    }
+
     @Test
     void getRecommendationsForUser_UserNotFound() {
         when(restTemplate.getForObject(
@@ -101,7 +309,7 @@ class RecommendationServiceTest {
             eq(UserProfile[].class)))
             .thenReturn(new UserProfile[]{testUserProfile});
 
-        when(recommendationEngine.calculateJobMatch(any(UserProfile.class), any(JobPosting.class)))
+        when(recommendationEngine.calculateJobMatch(any(CompiledUserProfile.class), any(CompiledJobPosting.class), anyBoolean()))
             .thenReturn(testRecommendation);
 
         List<JobRecommendation> matchingUsers = recommendationService.getMatchingUsersForJob("1", 10);
@@ -136,7 +344,7 @@ class RecommendationServiceTest {
             eq(JobPosting[].class)))
             .thenReturn(new JobPosting[]{testJobPosting});
 
-        when(recommendationEngine.calculateJobMatch(any(UserProfile.class), any(JobPosting.class)))
+        when(recommendationEngine.calculateJobMatch(any(CompiledUserProfile.class), any(CompiledJobPosting.class), anyBoolean()))
             .thenReturn(testRecommendation);
 
         recommendationService.refreshRecommendations("1");
@@ -0,0 +1,92 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayTrackerTest {
+
+    private final TopicPartition jobs = new TopicPartition("job-postings", 0);
+    private final TopicPartition newJobs = new TopicPartition("job-postings", 1);
+    private final TopicPartition profiles = new TopicPartition("user-profiles", 0);
+
+    private ReplayTracker replayTracker;
+    private MockConsumer<String, Object> consumer;
+
+    @BeforeEach
+    void setUp() {
+        replayTracker = new ReplayTracker();
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(jobs, newJobs, profiles));
+        consumer.updateBeginningOffsets(Map.of(jobs, 0L, newJobs, 0L, profiles, 0L));
+        consumer.updateEndOffsets(Map.of(jobs, 10L, newJobs, 2L, profiles, 5L));
+    }
+
+    @Test
+    void onPartitionsAssigned_ResumesFromRestoredOffsets() {
+        replayTracker.restoredFrom(Map.of(jobs, 7L, profiles, 5L));
+
+        replayTracker.onPartitionsAssigned(consumer, List.of(jobs, newJobs, profiles));
+
+        assertEquals(7L, consumer.position(jobs));
+        assertEquals(0L, consumer.position(newJobs));
+        assertEquals(5L, consumer.position(profiles));
+    }
+
+    @Test
+    void isReady_OnceEveryPartitionReachedItsEndOffset() {
+        replayTracker.restoredFrom(Map.of(jobs, 7L, profiles, 5L));
+        replayTracker.onPartitionsAssigned(consumer, List.of(jobs, newJobs, profiles));
+        assertFalse(replayTracker.isReady());
+
+        replayTracker.applied("job-postings", 0, 9);
+        assertFalse(replayTracker.isReady());
+        assertEquals(2L, replayTracker.getLag().get(newJobs.toString()));
+
+        replayTracker.applied("job-postings", 1, 1);
+        assertTrue(replayTracker.isReady());
+        assertTrue(replayTracker.getTimeToReadyMillis() >= 0);
+        assertEquals(Map.of(jobs, 10L, newJobs, 2L, profiles, 5L), replayTracker.getPositions());
+    }
+
+    @Test
+    void isReady_WaitsForBothTopics() {
+        replayTracker.onPartitionsAssigned(consumer, List.of(profiles));
+        replayTracker.applied("user-profiles", 0, 4);
+
+        assertFalse(replayTracker.isReady());
+    }
+
+    @Test
+    void isReady_IgnoresPartitionsRevokedBeforeCatchingUp() {
+        replayTracker.onPartitionsAssigned(consumer, List.of(jobs, newJobs, profiles));
+        replayTracker.applied("job-postings", 0, 9);
+        replayTracker.applied("user-profiles", 0, 4);
+        assertFalse(replayTracker.isReady());
+
+        replayTracker.onPartitionsRevokedBeforeCommit(consumer, List.of(newJobs));
+
+        assertTrue(replayTracker.isReady());
+        assertFalse(replayTracker.getLag().containsKey(newJobs.toString()));
+    }
+
+    @Test
+    void isReady_WaitsForReassignmentAfterAllPartitionsAreLost() {
+        replayTracker.onPartitionsAssigned(consumer, List.of(jobs, profiles));
+        replayTracker.onPartitionsLost(consumer, List.of(jobs, profiles));
+
+        replayTracker.applied("job-postings", 0, 9);
+        assertFalse(replayTracker.isReady());
+
+        replayTracker.onPartitionsAssigned(consumer, List.of(jobs, profiles));
+        replayTracker.applied("user-profiles", 0, 4);
+        assertTrue(replayTracker.isReady());
+    }
+}
@@ -0,0 +1,108 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer requestCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestCoalescer = new RequestCoalescer(meterRegistry);
+    }
+
+    @Test
+    void execute_SharesInFlightComputation() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<List<String>> leader = executor.submit(() -> requestCoalescer.execute("users", "u1", () -> {
+                computations.incrementAndGet();
+                started.countDown();
+                await(release);
+                return List.of("job-1");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<List<String>> follower = executor.submit(() -> requestCoalescer.execute("users", "u1", () -> {
+                computations.incrementAndGet();
+                return List.of("job-2");
+            }));
+            // Another key is not held up by the running computation
+            assertEquals(List.of("job-3"), requestCoalescer.execute("users", "u2", () -> List.of("job-3")));
+            waitForCount("coalesced", 1);
+            release.countDown();
+
+            assertSame(leader.get(5, TimeUnit.SECONDS), follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, computations.get());
+            assertEquals(2.0, count("computed"));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Completed computations are not reused
+        assertEquals(List.of("job-4"), requestCoalescer.execute("users", "u1", () -> List.of("job-4")));
+    }
+
+    @Test
+    void execute_PropagatesFailureToCoalescedCallers() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> leader = executor.submit(() -> requestCoalescer.execute("jobs", "j1", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("upstream down");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Object> follower = executor.submit(() -> requestCoalescer.execute("jobs", "j1", () -> "unused"));
+            waitForCount("coalesced", 1);
+            release.countDown();
+
+            for (Future<Object> call : List.of(leader, follower)) {
+                Exception e = assertThrows(Exception.class, () -> call.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.find("recommendation.requests").tag("outcome", outcome).counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private void waitForCount(String outcome, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(outcome) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, count(outcome));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.CompiledJobPosting;
+import com.jobrecommendation.recommendationservice.model.JobPosting;
+import com.jobrecommendation.recommendationservice.model.UserProfile;
+import com.jobrecommendation.recommendationservice.repository.JobCatalog;
+import com.jobrecommendation.recommendationservice.repository.StateSnapshotStore;
+import com.jobrecommendation.recommendationservice.repository.UserProfileStore;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateSnapshotterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restore_RebuildsTheStateAndOffsetsOfASnapshot() {
+        Replica original = new Replica(directory);
+        original.jobCatalog.loadAll(List.of(job("1", "Remote", "Java", "Spring"), job("2", "Berlin", "Python")));
+        original.userProfileStore.loadAll(List.of(profile("u1", "Berlin", "Python", "Go")));
+        original.replayTracker.applied("job-postings", 0, 41);
+        original.stateSnapshotter.snapshot();
+
+        Replica restored = new Replica(directory);
+        restored.stateSnapshotter.restore();
+
+        assertTrue(restored.jobCatalog.isInitialized());
+        assertTrue(restored.userProfileStore.isInitialized());
+        for (String jobId : List.of("1", "2")) {
+            CompiledJobPosting expected = original.jobCatalog.findCompiledById(jobId).orElseThrow();
+            assertEquals(expected, restored.jobCatalog.findCompiledById(jobId).orElseThrow());
+        }
+        assertEquals(original.userProfileStore.findById("u1"), restored.userProfileStore.findById("u1"));
+        assertArrayEquals(original.userProfileStore.findCompiledById("u1").orElseThrow().getSkillIds(),
+                restored.userProfileStore.findCompiledById("u1").orElseThrow().getSkillIds());
+        assertEquals(original.featureEncoder.findLocationId("Berlin"), restored.featureEncoder.findLocationId("berlin"));
+        assertEquals(42L, restored.replayTracker.getPositions().get(new TopicPartition("job-postings", 0)));
+    }
+
+    @Test
+    void snapshot_SkipsStateNotBootstrappedYet() {
+        Replica replica = new Replica(directory);
+        replica.jobCatalog.upsert(job("1", "Remote", "Java"));
+        replica.stateSnapshotter.snapshot();
+
+        Replica restored = new Replica(directory);
+        restored.stateSnapshotter.restore();
+
+        assertFalse(restored.jobCatalog.isInitialized());
+    }
+
+    private static JobPosting job(String id, String location, String... skills) {
+        JobPosting jobPosting = new JobPosting();
+        jobPosting.setId(id);
+        jobPosting.setLocation(location);
+        jobPosting.setCompany("TechCorp");
+        jobPosting.setRequiredSkills(List.of(skills));
+        jobPosting.setSalary(100000.0);
+        jobPosting.setIsActive(true);
+        return jobPosting;
+    }
+
+    private static UserProfile profile(String id, String location, String... skills) {
+        UserProfile userProfile = new UserProfile();
+        userProfile.setId(id);
+        userProfile.setPreferredLocation(location);
+        userProfile.setSkills(List.of(skills));
+        userProfile.setPreferredCompanies(List.of("TechCorp"));
+        return userProfile;
+    }
+
+    private static final class Replica {
+        final SkillDictionary skillDictionary = new SkillDictionary();
+        final FeatureEncoder featureEncoder = new FeatureEncoder(skillDictionary);
+        final JobCatalog jobCatalog = new JobCatalog(featureEncoder);
+        final UserProfileStore userProfileStore = new UserProfileStore(featureEncoder);
+        final ReplayTracker replayTracker = new ReplayTracker();
+        final StateSnapshotter stateSnapshotter;
+
+        Replica(Path directory) {
+            stateSnapshotter = new StateSnapshotter(new StateSnapshotStore(directory.resolve("state.snapshot")),
+                    jobCatalog, userProfileStore, skillDictionary, featureEncoder, replayTracker, true);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKSelectorTest {
+
+    @Test
+    void sortedIndices_ReturnsBestScoresDescending() {
+        TopKSelector topK = new TopKSelector(3);
+        double[] scores = {0.2, 0.9, 0.5, 0.7, 0.1};
+        for (int i = 0; i < scores.length; i++) {
+            topK.offer(i, scores[i]);
+        }
+
+        assertArrayEquals(new int[]{1, 3, 2}, topK.sortedIndices());
+        assertEquals(0.5, topK.threshold());
+    }
+
+    @Test
+    void sortedIndices_BreaksTiesByLowerIndex() {
+        TopKSelector topK = new TopKSelector(2);
+        topK.offer(0, 0.5);
+        topK.offer(1, 0.8);
+        topK.offer(2, 0.5);
+
+        assertArrayEquals(new int[]{1, 0}, topK.sortedIndices());
+    }
+
+    @Test
+    void offer_WithZeroCapacityKeepsNothing() {
+        TopKSelector topK = new TopKSelector(0);
+
+        assertFalse(topK.offer(0, 1.0));
+        assertEquals(0, topK.sortedIndices().length);
+    }
+
+    @Test
+    void offer_WithCapacityAboveCandidateCountKeepsEveryCandidate() {
+        TopKSelector topK = new TopKSelector(Integer.MAX_VALUE);
+        for (int i = 0; i < 100; i++) {
+            topK.offer(i, i % 10);
+        }
+
+        assertFalse(topK.isFull());
+        assertEquals(100, topK.size());
+        assertEquals(9, topK.sortedIndices()[0]);
+        assertEquals(90, topK.sortedIndices()[99]);
+    }
+
+    @Test
+    void sortedIndices_MatchesStableSortOnRandomInput() {
+        Random random = new Random(42);
+        double[] scores = new double[1_000];
+        for (int i = 0; i < scores.length; i++) {
+            // Coarse scores so that plenty of ties occur
+            scores[i] = random.nextInt(20) / 20.0;
+        }
+
+        TopKSelector topK = new TopKSelector(25);
+        for (int i = 0; i < scores.length; i++) {
+            topK.offer(i, scores[i]);
+        }
+
+        int[] expected = IntStream.range(0, scores.length).boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> scores[i]).reversed())
+                .limit(25)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        assertArrayEquals(expected, topK.sortedIndices());
+    }
+}
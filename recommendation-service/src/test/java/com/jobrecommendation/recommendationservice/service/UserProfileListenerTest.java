@@ -0,0 +1,67 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import com.jobrecommendation.recommendationservice.model.CompiledUserProfile;
+import com.jobrecommendation.recommendationservice.model.UserProfile;
+import com.jobrecommendation.recommendationservice.model.UserRecommendations;
+import com.jobrecommendation.recommendationservice.repository.UserProfileStore;
+import com.jobrecommendation.recommendationservice.repository.UserRecommendationStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserProfileListenerTest {
+
+    private UserProfileStore userProfileStore;
+    private UserRecommendationStore userRecommendationStore;
+    private ReplayTracker replayTracker;
+    private UserProfileListener listener;
+
+    @BeforeEach
+    void setUp() {
+        userProfileStore = new UserProfileStore(new FeatureEncoder(new SkillDictionary()));
+        userRecommendationStore = new UserRecommendationStore(3, 10, Duration.ofHours(1), Duration.ofHours(1),
+                new SimpleMeterRegistry());
+        userRecommendationStore.save(ranking("1"));
+        replayTracker = new ReplayTracker();
+        listener = new UserProfileListener(userProfileStore, userRecommendationStore, replayTracker);
+    }
+
+    @Test
+    void handleUserProfile_ReplacesProfileAndInvalidatesStoredRanking() {
+        listener.handleUserProfile(profile("1", "Java"), "user-profiles", 0, 3);
+        listener.handleUserProfile(profile("1", "Java", "Spring"), "user-profiles", 0, 4);
+
+        assertEquals(List.of("Java", "Spring"), userProfileStore.findById("1").orElseThrow().getSkills());
+        assertTrue(userRecommendationStore.findByUserId("1").isEmpty());
+        assertEquals(Map.of(new TopicPartition("user-profiles", 0), 5L), replayTracker.getPositions());
+    }
+
+    @Test
+    void handleUserProfile_SkipsTombstoneAndProfileWithoutId() {
+        listener.handleUserProfile(null, "user-profiles", 0, 7);
+        listener.handleUserProfile(profile(null, "Java"), "user-profiles", 0, 8);
+
+        assertEquals(0, userProfileStore.size());
+        assertTrue(userRecommendationStore.findByUserId("1").isPresent());
+        assertEquals(Map.of(new TopicPartition("user-profiles", 0), 9L), replayTracker.getPositions());
+    }
+
+    private static UserRecommendations ranking(String userId) {
+        CompiledUserProfile user = new CompiledUserProfile(userId, new int[]{1}, -1, 0, Double.NaN, new int[0]);
+        return UserRecommendations.of(user, new String[]{"a"}, new double[]{0.9}, 3, true);
+    }
+
+    private static UserProfile profile(String id, String... skills) {
+        UserProfile userProfile = new UserProfile();
+        userProfile.setId(id);
+        userProfile.setSkills(List.of(skills));
+        return userProfile;
+    }
+}
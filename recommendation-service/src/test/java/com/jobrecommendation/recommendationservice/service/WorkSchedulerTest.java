@@ -0,0 +1,135 @@
+package com.jobrecommendation.recommendationservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkSchedulerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WorkScheduler workScheduler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        workScheduler = new WorkScheduler(1, Map.of(
+            WorkPriority.INTERACTIVE, new WorkScheduler.Lane(10, 1),
+            WorkPriority.UPDATE, new WorkScheduler.Lane(10, 1),
+            WorkPriority.BULK, new WorkScheduler.Lane(2, 1)
+        ), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workScheduler.shutdown();
+    }
+
+    @Test
+    void submit_RunsHigherPriorityWorkFirst() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> blocker = workScheduler.submit(WorkPriority.UPDATE, () -> {
+            started.countDown();
+            await(release);
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        List<String> order = new CopyOnWriteArrayList<>();
+        CompletableFuture<?> bulk = workScheduler.submit(WorkPriority.BULK, () -> order.add("bulk"));
+        CompletableFuture<?> update = workScheduler.submit(WorkPriority.UPDATE, () -> order.add("update"));
+        CompletableFuture<?> first = workScheduler.submit(WorkPriority.INTERACTIVE, () -> order.add("interactive-1"));
+        CompletableFuture<?> second = workScheduler.submit(WorkPriority.INTERACTIVE, () -> order.add("interactive-2"));
+        assertEquals(2, workScheduler.queued(WorkPriority.INTERACTIVE));
+
+        release.countDown();
+        CompletableFuture.allOf(blocker, bulk, update, first, second).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("interactive-1", "interactive-2", "update", "bulk"), order);
+        assertEquals(0, workScheduler.queued(WorkPriority.INTERACTIVE));
+        assertEquals(2, meterRegistry.get("recommendation.work.wait").tag("priority", "interactive").timer().count());
+    }
+
+    @Test
+    void submit_RejectsWhenLaneIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> running = workScheduler.submit(WorkPriority.INTERACTIVE, () -> {
+            await(release);
+            return null;
+        });
+        workScheduler.submit(WorkPriority.BULK, () -> null);
+        workScheduler.submit(WorkPriority.BULK, () -> null);
+
+        assertThrows(RejectedExecutionException.class, () -> workScheduler.submit(WorkPriority.BULK, () -> null));
+        assertEquals(2.0, meterRegistry.get("recommendation.work.queued").tag("priority", "bulk").gauge().value());
+        // Other lanes still accept work
+        CompletableFuture<String> update = workScheduler.submit(WorkPriority.UPDATE, () -> "done");
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        assertEquals("done", update.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void submit_LeavesAWorkerForInteractiveWork() throws Exception {
+        WorkScheduler smallPool = new WorkScheduler(2, Map.of(
+            WorkPriority.UPDATE, new WorkScheduler.Lane(10, 2),
+            WorkPriority.BULK, new WorkScheduler.Lane(10, 2)
+        ), new SimpleMeterRegistry());
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Void> update = smallPool.submit(WorkPriority.UPDATE, () -> {
+                started.countDown();
+                await(release);
+                return null;
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> secondUpdate = smallPool.submit(WorkPriority.UPDATE, () -> "update");
+            CompletableFuture<String> bulk = smallPool.submit(WorkPriority.BULK, () -> "bulk");
+
+            // Both background lanes are below their own limit, but only one worker is left, kept for reads
+            assertEquals("interactive", smallPool.submit(WorkPriority.INTERACTIVE, () -> "interactive")
+                    .get(5, TimeUnit.SECONDS));
+            assertFalse(secondUpdate.isDone());
+            assertEquals(1, smallPool.queued(WorkPriority.UPDATE));
+            assertEquals(1, smallPool.queued(WorkPriority.BULK));
+
+            release.countDown();
+            update.get(5, TimeUnit.SECONDS);
+            assertEquals("update", secondUpdate.get(5, TimeUnit.SECONDS));
+            assertEquals("bulk", bulk.get(5, TimeUnit.SECONDS));
+        } finally {
+            smallPool.shutdown();
+        }
+    }
+
+    @Test
+    void call_RethrowsExceptionOfTheWork() {
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> workScheduler.call(WorkPriority.INTERACTIVE, () -> {
+                    throw new IllegalStateException("failed");
+                }));
+        assertEquals("failed", thrown.getMessage());
+        assertEquals(42, workScheduler.call(WorkPriority.INTERACTIVE, () -> 42));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}